@@ -0,0 +1,101 @@
+package com.auth.auth_microservice.benchmark;
+
+import com.auth.auth_microservice.metrics.AuthMetrics;
+import com.auth.auth_microservice.security.JwtAuthenticationFilter;
+import com.auth.auth_microservice.security.JwtKeyRing;
+import com.auth.auth_microservice.security.JwtUtil;
+import com.auth.auth_microservice.security.TokenPrecheck;
+import com.auth.auth_microservice.security.TokenRevocationList;
+import com.auth.auth_microservice.security.TokenVerifier;
+import com.auth.auth_microservice.security.VerifiedToken;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+    private static final String SECRET = "mysecretkeymysecretkeymysecretkeymysecretkey";
+    private static final long ACCESS_TOKEN_TTL_MILLIS = Duration.ofMinutes(15).toMillis();
+
+    private JwtUtil jwtUtil;
+    private TokenVerifier tokenVerifier;
+    private JwtAuthenticationFilter filter;
+    private WebFilterChain chain;
+    private String token;
+    private String garbageToken;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET);
+        TokenRevocationList revocationList = new TokenRevocationList(null, null, Duration.ofSeconds(10), 10_000);
+        tokenVerifier = new TokenVerifier(jwtUtil, new TokenPrecheck(JwtKeyRing.hmac(SECRET), 4096),
+                new AuthMetrics(new SimpleMeterRegistry()), revocationList, 10_000);
+        filter = new JwtAuthenticationFilter(tokenVerifier);
+        chain = exchange -> Mono.empty();
+        token = jwtUtil.generateToken("USER_001");
+        garbageToken = token.substring(0, token.lastIndexOf('.') + 1) + "forged";
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("USER_001");
+    }
+
+    /** The builder pipeline generateToken used before HmacTokenMinter; compare with -prof gc. */
+    @Benchmark
+    public String generateTokenWithBuilder() {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject("USER_001")
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + ACCESS_TOKEN_TTL_MILLIS))
+                .signWith(jwtUtil.key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public void extractUsernameAndExpiry(Blackhole blackhole) {
+        blackhole.consume(jwtUtil.extractUsername(token));
+        blackhole.consume(jwtUtil.isTokenExpired(token));
+    }
+
+    @Benchmark
+    public VerifiedToken verifyOnce() {
+        return jwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyCached() {
+        return tokenVerifier.verify(token);
+    }
+
+    @Benchmark
+    public VerifiedToken rejectMalformed() {
+        return tokenVerifier.verify(garbageToken);
+    }
+
+    @Benchmark
+    public Object filter() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/auth")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+        return filter.filter(exchange, chain).block();
+    }
+}
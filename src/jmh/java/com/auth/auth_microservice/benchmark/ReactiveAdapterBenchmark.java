@@ -0,0 +1,66 @@
+package com.auth.auth_microservice.benchmark;
+
+import com.auth.auth_microservice.model.TokenPair;
+import com.auth.auth_microservice.model.UserView;
+import org.openjdk.jmh.annotations.*;
+import reactor.adapter.rxjava.RxJava3Adapter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the Reactor-native service path with the former Mono -> Single -> Mono and
+ * Flux -> Flowable -> Flux round trips. Run with {@code -prof gc} to see the bytes allocated
+ * per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReactiveAdapterBenchmark {
+    private TokenPair tokens;
+    private List<UserView> users;
+
+    @Setup
+    public void setUp() {
+        tokens = new TokenPair("access", "refresh");
+        users = IntStream.range(0, 100)
+                .mapToObj(i -> new UserView(String.valueOf(i), "user" + i, "user" + i + "@example.com", LocalDate.now(), "USER"))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public String loginNative() {
+        return Mono.just(tokens)
+                .map(TokenPair::getToken)
+                .block();
+    }
+
+    @Benchmark
+    public String loginAdapted() {
+        return RxJava3Adapter.singleToMono(RxJava3Adapter.monoToSingle(Mono.just(tokens))
+                        .map(TokenPair::getToken))
+                .block();
+    }
+
+    @Benchmark
+    public Long listNative() {
+        return Flux.fromIterable(users)
+                .count()
+                .block();
+    }
+
+    @Benchmark
+    public Long listAdapted() {
+        return RxJava3Adapter.flowableToFlux(RxJava3Adapter.fluxToFlowable(Flux.fromIterable(users)))
+                .count()
+                .block();
+    }
+}
@@ -0,0 +1,297 @@
+package com.auth.auth_microservice.loadtest;
+
+import com.auth.auth_microservice.AuthMicroserviceApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.mongodb.ConnectionString;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Open-model load test: requests are started at a fixed rate whether or not earlier ones have
+ * finished, the way real clients arrive, and each one runs a scenario picked by weight from the
+ * mix. Without {@code --base-url} the application is started in-process with the config server and
+ * Eureka disabled, against {@code --mongo-uri} or else an in-memory MongoDB stand-in. The stand-in
+ * makes runs comparable with each other, not with production Mongo latencies. Exits with status 1
+ * when a latency or error-rate threshold is exceeded. Listing users needs the ADMIN role, which the
+ * load test grants its users directly in Mongo; against {@code --base-url} that takes
+ * {@code --mongo-uri} too.
+ *
+ * <pre>mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--rps=200 --duration=60s --max-p99=250ms"</pre>
+ */
+public final class LoadTest {
+    private static final String PASSWORD = "load-test-password";
+
+    private final LoadTestOptions options;
+    private final String mongoUri;
+    private final WebClient webClient;
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong registrations = new AtomicLong();
+    private final List<String> usernames = new ArrayList<>();
+    private final List<String> tokens = new ArrayList<>();
+    private final Scenario[] weightedScenarios;
+
+    private LoadTest(LoadTestOptions options, String baseUrl, String mongoUri) {
+        this.options = options;
+        this.mongoUri = mongoUri;
+        ConnectionProvider connections = ConnectionProvider.builder("load-test")
+                .maxConnections(options.maxConcurrency)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        this.webClient = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                .build();
+        List<Scenario> weighted = new ArrayList<>();
+        options.mix.forEach((scenario, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(scenario);
+            }
+        });
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("The scenario mix is empty");
+        }
+        this.weightedScenarios = weighted.toArray(new Scenario[0]);
+    }
+
+    public static void main(String[] args) throws IOException {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        MongoServer mongoServer = null;
+        ConfigurableApplicationContext application = null;
+        String baseUrl = options.baseUrl;
+        String mongoUri = options.mongoUri;
+        boolean passed;
+        try {
+            if (baseUrl == null) {
+                if (mongoUri == null) {
+                    mongoServer = new MongoServer(new MemoryBackend());
+                    InetSocketAddress address = mongoServer.bind();
+                    mongoUri = "mongodb://" + address.getHostString() + ":" + address.getPort() + "/auth-loadtest";
+                }
+                application = startApplication(mongoUri);
+                baseUrl = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+            }
+            passed = new LoadTest(options, baseUrl, mongoUri).run();
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+            if (mongoServer != null) {
+                mongoServer.shutdownNow();
+            }
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static ConfigurableApplicationContext startApplication(String mongoUri) {
+        // System properties, so the bootstrap context sees them too
+        System.setProperty("spring.cloud.config.enabled", "false");
+        System.setProperty("eureka.client.enabled", "false");
+        return new SpringApplicationBuilder(AuthMicroserviceApplication.class)
+                .profiles("loadtest")
+                .run("--server.port=0", "--spring.data.mongodb.uri=" + mongoUri);
+    }
+
+    private boolean run() throws IOException {
+        System.out.printf("Creating %d users%n", options.users);
+        createUsers();
+
+        System.out.printf("Warming up at %d rps for %s%n", options.rps, options.warmup);
+        drive(options.warmup);
+
+        System.out.printf("Measuring at %d rps for %s%n", options.rps, options.duration);
+        long start = System.nanoTime();
+        Result result = drive(options.duration);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        return report(result, elapsed);
+    }
+
+    /**
+     * Gives the users of this run the ADMIN role, so their tokens may list users.
+     */
+    private void grantAdmin() {
+        if (mongoUri == null) {
+            System.out.println("No --mongo-uri, listing users will be rejected");
+            return;
+        }
+        ConnectionString connectionString = new ConnectionString(mongoUri);
+        try (MongoClient client = MongoClients.create(connectionString)) {
+            Mono.from(client.getDatabase(connectionString.getDatabase()).getCollection("users")
+                            .updateMany(Filters.regex("username", "^load-" + runId + "-"),
+                                    Updates.set("roles", "ADMIN USER")))
+                    .block();
+        }
+    }
+
+    private void createUsers() {
+        List<String> registered = Flux.range(0, options.users)
+                .flatMap(i -> {
+                    String username = nextUsername();
+                    return register(username).thenReturn(username);
+                }, 8)
+                .collectList()
+                .block();
+        grantAdmin();
+        List<String[]> created = Flux.fromIterable(registered)
+                .flatMap(username -> login(username).map(token -> new String[]{username, token}), 8)
+                .collectList()
+                .block();
+        for (String[] user : created) {
+            usernames.add(user[0]);
+            tokens.add(user[1]);
+        }
+    }
+
+    private Result drive(Duration duration) {
+        Map<Scenario, ScenarioStats> stats = new EnumMap<>(Scenario.class);
+        for (Scenario scenario : Scenario.values()) {
+            stats.put(scenario, new ScenarioStats(scenario));
+        }
+        LongAdder dropped = new LongAdder();
+        long periodNanos = 1_000_000_000L / options.rps;
+        long ticks = duration.toNanos() / periodNanos;
+        long start = System.nanoTime();
+        Flux.interval(Duration.ofNanos(periodNanos))
+                .take(ticks)
+                .onBackpressureDrop(tick -> dropped.increment())
+                .flatMap(tick -> {
+                    Scenario scenario = weightedScenarios[ThreadLocalRandom.current().nextInt(weightedScenarios.length)];
+                    long scheduledAt = start + (tick + 1) * periodNanos;
+                    ScenarioStats scenarioStats = stats.get(scenario);
+                    return execute(scenario)
+                            .timeout(options.requestTimeout)
+                            .doOnNext(status -> scenarioStats.record(System.nanoTime() - scheduledAt, status))
+                            .onErrorResume(exception -> {
+                                scenarioStats.recordFailure(System.nanoTime() - scheduledAt,
+                                        exception instanceof TimeoutException ? ScenarioStats.TIMEOUT : ScenarioStats.IO_ERROR);
+                                return Mono.empty();
+                            });
+                }, options.maxConcurrency)
+                .blockLast();
+        return new Result(stats, dropped.sum());
+    }
+
+    private Mono<Integer> execute(Scenario scenario) {
+        switch (scenario) {
+            case LOGIN:
+                int user = ThreadLocalRandom.current().nextInt(usernames.size());
+                return status(webClient.post().uri("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(Map.of("username", usernames.get(user), "password", PASSWORD)));
+            case REGISTER:
+                return status(registration(nextUsername()));
+            case LIST:
+                String token = tokens.get(ThreadLocalRandom.current().nextInt(tokens.size()));
+                return status(webClient.get().uri("/auth?size=20")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .accept(MediaType.APPLICATION_JSON));
+            default:
+                throw new IllegalStateException("Unknown scenario " + scenario);
+        }
+    }
+
+    private static Mono<Integer> status(WebClient.RequestHeadersSpec<?> request) {
+        return request.exchangeToMono(response -> response.releaseBody().thenReturn(response.rawStatusCode()));
+    }
+
+    private Mono<Void> register(String username) {
+        return registration(username)
+                .retrieve()
+                .toBodilessEntity()
+                .then();
+    }
+
+    private WebClient.RequestHeadersSpec<?> registration(String username) {
+        return webClient.post().uri("/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of(
+                        "username", username,
+                        "password", PASSWORD,
+                        "email", username + "@loadtest.example.com",
+                        "dateBorn", "1990-01-01"));
+    }
+
+    private Mono<String> login(String username) {
+        return webClient.post().uri("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("username", username, "password", PASSWORD))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .map(body -> body.get("token").asText());
+    }
+
+    private String nextUsername() {
+        return "load-" + runId + "-" + registrations.incrementAndGet();
+    }
+
+    private boolean report(Result result, Duration elapsed) throws IOException {
+        System.out.println();
+        System.out.println(ScenarioStats.header());
+        boolean passed = true;
+        long requests = result.dropped;
+        for (ScenarioStats stats : result.stats.values()) {
+            if (stats.requests() == 0) {
+                continue;
+            }
+            requests += stats.requests();
+            System.out.println(stats.summary(elapsed));
+            stats.writeHistogram(options.reportDirectory);
+            if (stats.errorRate() > options.maxErrorRate) {
+                System.out.printf("FAIL: error rate %.2f%% is above %.2f%%%n",
+                        stats.errorRate() * 100, options.maxErrorRate * 100);
+                passed = false;
+            }
+            if (options.maxP99 != null && stats.percentile(99).compareTo(options.maxP99) > 0) {
+                System.out.printf("FAIL: p99 %s is above %s%n", stats.percentile(99), options.maxP99);
+                passed = false;
+            }
+        }
+        if (result.dropped > 0) {
+            System.out.printf("%d requests were not sent because %d were already in flight%n",
+                    result.dropped, options.maxConcurrency);
+            if ((double) result.dropped / requests > options.maxErrorRate) {
+                passed = false;
+            }
+        }
+        System.out.printf("Histograms written to %s%n", options.reportDirectory.toAbsolutePath());
+        System.out.println(passed ? "PASSED" : "FAILED");
+        return passed;
+    }
+
+    private static final class Result {
+        private final Map<Scenario, ScenarioStats> stats;
+        private final long dropped;
+
+        private Result(Map<Scenario, ScenarioStats> stats, long dropped) {
+            this.stats = stats;
+            this.dropped = dropped;
+        }
+    }
+}
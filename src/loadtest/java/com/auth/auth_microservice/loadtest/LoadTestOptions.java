@@ -0,0 +1,105 @@
+package com.auth.auth_microservice.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Command line options of {@link LoadTest}, given as {@code --name=value}.
+ */
+final class LoadTestOptions {
+    /** Target of an already running instance; when absent the application is started in-process. */
+    String baseUrl;
+    /** MongoDB for the in-process application; when absent an in-memory stand-in is started. */
+    String mongoUri;
+    int rps = 100;
+    Duration warmup = Duration.ofSeconds(10);
+    Duration duration = Duration.ofSeconds(30);
+    Duration requestTimeout = Duration.ofSeconds(5);
+    int users = 50;
+    int maxConcurrency = 512;
+    Map<Scenario, Integer> mix = defaultMix();
+    /** Fails the run when any scenario's p99 is above it. */
+    Duration maxP99;
+    /** Fails the run when any scenario's error rate is above it. */
+    double maxErrorRate = 0.01;
+    Path reportDirectory = Path.of("target", "loadtest");
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "base-url":
+                    options.baseUrl = value;
+                    break;
+                case "mongo-uri":
+                    options.mongoUri = value;
+                    break;
+                case "rps":
+                    options.rps = Integer.parseInt(value);
+                    break;
+                case "warmup":
+                    options.warmup = DurationStyle.detectAndParse(value);
+                    break;
+                case "duration":
+                    options.duration = DurationStyle.detectAndParse(value);
+                    break;
+                case "request-timeout":
+                    options.requestTimeout = DurationStyle.detectAndParse(value);
+                    break;
+                case "users":
+                    options.users = Integer.parseInt(value);
+                    break;
+                case "max-concurrency":
+                    options.maxConcurrency = Integer.parseInt(value);
+                    break;
+                case "mix":
+                    options.mix = parseMix(value);
+                    break;
+                case "max-p99":
+                    options.maxP99 = DurationStyle.detectAndParse(value);
+                    break;
+                case "max-error-rate":
+                    options.maxErrorRate = Double.parseDouble(value);
+                    break;
+                case "report-dir":
+                    options.reportDirectory = Path.of(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        if (options.rps <= 0 || options.users <= 0) {
+            throw new IllegalArgumentException("--rps and --users must be positive");
+        }
+        return options;
+    }
+
+    /**
+     * @param value weights such as {@code login=10,register=5,list=85}
+     */
+    private static Map<Scenario, Integer> parseMix(String value) {
+        Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split("=");
+            mix.put(Scenario.fromName(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+
+    private static Map<Scenario, Integer> defaultMix() {
+        Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+        mix.put(Scenario.LOGIN, 10);
+        mix.put(Scenario.REGISTER, 5);
+        mix.put(Scenario.LIST, 85);
+        return mix;
+    }
+}
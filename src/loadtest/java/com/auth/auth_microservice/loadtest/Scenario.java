@@ -0,0 +1,26 @@
+package com.auth.auth_microservice.loadtest;
+
+enum Scenario {
+    LOGIN("login"),
+    REGISTER("register"),
+    LIST("list");
+
+    private final String name;
+
+    Scenario(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    static Scenario fromName(String name) {
+        for (Scenario scenario : values()) {
+            if (scenario.name.equals(name)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scenario " + name);
+    }
+}
@@ -0,0 +1,100 @@
+package com.auth.auth_microservice.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and errors of one scenario. Latency is measured from when the request was scheduled,
+ * not when it was sent, so a stalled server shows up in the percentiles instead of lowering the
+ * request rate.
+ */
+final class ScenarioStats {
+    static final String TIMEOUT = "timeout";
+    static final String IO_ERROR = "io_error";
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final Scenario scenario;
+    private final Histogram latencies = new ConcurrentHistogram(3);
+    private final LongAdder requests = new LongAdder();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    ScenarioStats(Scenario scenario) {
+        this.scenario = scenario;
+    }
+
+    void record(long latencyNanos, int status) {
+        requests.increment();
+        latencies.recordValue(Math.max(0, latencyNanos));
+        if (status < 200 || status >= 300) {
+            error(String.valueOf(status));
+        }
+    }
+
+    void error(String reason) {
+        errors.computeIfAbsent(reason, key -> new LongAdder()).increment();
+    }
+
+    void recordFailure(long latencyNanos, String reason) {
+        requests.increment();
+        latencies.recordValue(Math.max(0, latencyNanos));
+        error(reason);
+    }
+
+    long requests() {
+        return requests.sum();
+    }
+
+    long errorCount() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    double errorRate() {
+        long requests = requests();
+        return requests == 0 ? 0 : (double) errorCount() / requests;
+    }
+
+    Duration percentile(double percentile) {
+        return Duration.ofNanos(latencies.getValueAtPercentile(percentile));
+    }
+
+    static String header() {
+        return String.format("%-10s %9s %9s %8s %7s %9s %9s %9s %9s %9s  %s",
+                "scenario", "requests", "rps", "errors", "err%",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors by status");
+    }
+
+    String summary(Duration elapsed) {
+        Map<String, Long> errorsByStatus = new TreeMap<>();
+        errors.forEach((reason, count) -> errorsByStatus.put(reason, count.sum()));
+        return String.format("%-10s %9d %9.1f %8d %6.2f%% %9.2f %9.2f %9.2f %9.2f %9.2f  %s",
+                scenario.getName(), requests(), requests() / (elapsed.toNanos() / 1e9), errorCount(),
+                errorRate() * 100, millis(50), millis(90), millis(99), millis(99.9),
+                latencies.getMaxValue() / NANOS_PER_MILLI, errorsByStatus);
+    }
+
+    /**
+     * Writes the percentile distribution in the HdrHistogram text format, in milliseconds; it can be
+     * plotted with the HdrHistogram plotter to compare runs.
+     */
+    void writeHistogram(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(scenario.getName() + ".hgrm")))) {
+            latencies.outputPercentileDistribution(out, NANOS_PER_MILLI);
+        }
+    }
+
+    private double millis(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+}
@@ -2,14 +2,35 @@ package com.auth.auth_microservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.core.env.Profiles;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
 
 @SpringBootApplication
 @EnableDiscoveryClient
 public class AuthMicroserviceApplication {
+	private static final int STARTUP_STEPS = 4096;
 
 	public static void main(String[] args) {
-		SpringApplication.run(AuthMicroserviceApplication.class, args);
+		SpringApplication application = new SpringApplication(AuthMicroserviceApplication.class);
+		if (recordsStartup(args)) {
+			application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+		}
+		application.run(args);
+	}
+
+	/**
+	 * Startup steps are only buffered for the {@code fast-start} profile or with
+	 * {@code auth.startup.record=true}, read from the arguments, system properties and environment
+	 * since the application environment does not exist yet.
+	 */
+	static boolean recordsStartup(String... args) {
+		StandardEnvironment environment = new StandardEnvironment();
+		environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+		return environment.acceptsProfiles(Profiles.of("fast-start"))
+				|| environment.getProperty("auth.startup.record", Boolean.class, false);
 	}
 
 }
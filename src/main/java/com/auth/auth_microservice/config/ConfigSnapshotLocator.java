@@ -0,0 +1,46 @@
+package com.auth.auth_microservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.bootstrap.config.PropertySourceLocator;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.PropertiesPropertySource;
+import org.springframework.core.env.PropertySource;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Bootstrap locator for the last configuration received from the config server, as written by
+ * {@link ConfigSnapshotWriter}. It ranks below the config server, so a reachable server always
+ * wins and the snapshot only fills in when the server is down or disabled.
+ */
+@Slf4j
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class ConfigSnapshotLocator implements PropertySourceLocator {
+    static final String PATH_PROPERTY = "auth.config.snapshot.path";
+    static final String PROPERTY_SOURCE_NAME = "configSnapshot";
+
+    @Override
+    public PropertySource<?> locate(Environment environment) {
+        String path = environment.getProperty(PATH_PROPERTY);
+        if (!StringUtils.hasText(path) || !Files.isReadable(Path.of(path))) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(Path.of(path), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException exception) {
+            log.warn("Could not read the configuration snapshot {}: {}", path, exception.getMessage());
+            return null;
+        }
+        log.info("Loaded {} properties from the configuration snapshot {}", properties.size(), path);
+        return new PropertiesPropertySource(PROPERTY_SOURCE_NAME, properties);
+    }
+}
@@ -0,0 +1,67 @@
+package com.auth.auth_microservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.PropertySource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Saves the properties received from the config server to {@code auth.config.snapshot.path} once
+ * the application is ready, for {@link ConfigSnapshotLocator} to boot later instances from. The file
+ * holds secrets such as {@code jwt.secret}; it is created readable by the owner only.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "auth.config.snapshot.write", havingValue = "true")
+public class ConfigSnapshotWriter implements ApplicationListener<ApplicationReadyEvent> {
+    private static final String CONFIG_SERVER_SOURCE = "configserver:";
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        ConfigurableEnvironment environment = event.getApplicationContext().getEnvironment();
+        String path = environment.getProperty(ConfigSnapshotLocator.PATH_PROPERTY);
+        Properties properties = new Properties();
+        for (PropertySource<?> source : environment.getPropertySources()) {
+            if (source.getName().contains(CONFIG_SERVER_SOURCE) && source instanceof EnumerablePropertySource) {
+                for (String name : ((EnumerablePropertySource<?>) source).getPropertyNames()) {
+                    Object value = source.getProperty(name);
+                    if (value != null) {
+                        properties.putIfAbsent(name, value.toString());
+                    }
+                }
+            }
+        }
+        if (path == null || properties.isEmpty()) {
+            log.debug("No configuration from the config server to snapshot");
+            return;
+        }
+        try {
+            write(Path.of(path).toAbsolutePath(), properties);
+            log.info("Saved {} properties to the configuration snapshot {}", properties.size(), path);
+        } catch (IOException exception) {
+            log.warn("Could not save the configuration snapshot {}: {}", path, exception.getMessage());
+        }
+    }
+
+    private static void write(Path file, Properties properties) throws IOException {
+        Files.createDirectories(file.getParent());
+        // Created with owner-only permissions, which the move keeps
+        Path temporary = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            properties.store(writer, "Configuration received from the config server");
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
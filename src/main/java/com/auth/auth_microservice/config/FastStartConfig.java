@@ -0,0 +1,36 @@
+package com.auth.auth_microservice.config;
+
+import com.auth.auth_microservice.controller.AuthController;
+import com.auth.auth_microservice.repository.MongoResilience;
+import com.auth.auth_microservice.repository.UserCredentialsCache;
+import com.auth.auth_microservice.security.JwtUtil;
+import com.auth.auth_microservice.security.PasswordHasher;
+import com.auth.auth_microservice.security.TokenVerifier;
+import com.auth.auth_microservice.service.AuthService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+
+/**
+ * The {@code fast-start} profile initializes beans lazily. The beans behind login and token
+ * verification stay eager, so the first requests after startup do not pay for creating them.
+ */
+@Configuration
+@Profile("fast-start")
+public class FastStartConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter hotPathBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                AuthController.class,
+                AuthService.class,
+                PasswordHasher.class,
+                UserCredentialsCache.class,
+                MongoResilience.class,
+                JwtUtil.class,
+                TokenVerifier.class,
+                SecurityWebFilterChain.class);
+    }
+}
@@ -0,0 +1,65 @@
+package com.auth.auth_microservice.config;
+
+import com.auth.auth_microservice.security.JwtKey;
+import com.auth.auth_microservice.security.JwtKeyRing;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(JwtProperties.class)
+public class JwtConfig {
+
+    @Bean
+    public JwtKeyRing jwtKeyRing(JwtProperties properties) {
+        List<JwtKey> keys = new ArrayList<>();
+        for (JwtProperties.KeyProperties key : properties.getKeys()) {
+            keys.add(asymmetricKey(key));
+        }
+        if (properties.getSecret() != null && !properties.getSecret().isBlank()) {
+            JwtKey legacyKey = JwtKeyRing.legacyHmacKey(properties.getSecret());
+            if (!keys.isEmpty()) {
+                legacyKey = new JwtKey(null, legacyKey.getAlgorithm(), null, legacyKey.getVerificationKey(),
+                        null, null);
+            }
+            keys.add(legacyKey);
+        }
+        return new JwtKeyRing(keys);
+    }
+
+    private static JwtKey asymmetricKey(JwtProperties.KeyProperties properties) {
+        SignatureAlgorithm algorithm = properties.getAlgorithm();
+        if (properties.getKid() == null || properties.getPublicKey() == null) {
+            throw new IllegalArgumentException("JWT keys need a kid and a public key");
+        }
+        if (!algorithm.isEllipticCurve() && !algorithm.isRsa()) {
+            throw new IllegalArgumentException("Unsupported JWT key algorithm " + algorithm);
+        }
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(algorithm.isEllipticCurve() ? "EC" : "RSA");
+            Key publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(decode(properties.getPublicKey())));
+            Key privateKey = properties.getPrivateKey() == null
+                    ? null
+                    : keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decode(properties.getPrivateKey())));
+            return new JwtKey(properties.getKid(), algorithm, privateKey, publicKey,
+                    properties.getNotBefore(), properties.getNotAfter());
+        } catch (GeneralSecurityException exception) {
+            throw new IllegalArgumentException("Invalid JWT key " + properties.getKid(), exception);
+        }
+    }
+
+    private static byte[] decode(String pem) {
+        String base64 = pem.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+}
@@ -0,0 +1,35 @@
+package com.auth.auth_microservice.config;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "jwt")
+public class JwtProperties {
+    /**
+     * Shared HS256 secret. Signs tokens when no asymmetric key is configured, otherwise it only
+     * verifies tokens issued before the switch.
+     */
+    private String secret;
+    private List<KeyProperties> keys = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class KeyProperties {
+        private String kid;
+        private SignatureAlgorithm algorithm = SignatureAlgorithm.ES256;
+        /** Base64 PKCS#8 private key, PEM armour allowed. Omit to keep a retired key for verification only. */
+        private String privateKey;
+        /** Base64 X.509 public key, PEM armour allowed. */
+        private String publicKey;
+        private Instant notBefore;
+        private Instant notAfter;
+    }
+}
@@ -0,0 +1,185 @@
+package com.auth.auth_microservice.config;
+
+import com.auth.auth_microservice.model.LoginEvent;
+import com.auth.auth_microservice.model.RefreshToken;
+import com.auth.auth_microservice.model.RevokedToken;
+import com.auth.auth_microservice.model.ServiceClient;
+import com.auth.auth_microservice.model.User;
+import com.auth.auth_microservice.repository.UserPartition;
+import com.auth.auth_microservice.repository.UserPartitions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates the indexes the login, register and token paths depend on and checks they exist before
+ * the service takes traffic: it starts in a lifecycle phase ahead of the web server, so requests
+ * are not served until the unique username and email indexes are in place. User indexes are
+ * created on every user partition. With {@code auth.mongo.indexes.fail-fast=true} a missing index
+ * aborts startup, otherwise it is only reported.
+ */
+@Slf4j
+@Component
+public class MongoIndexInitializer implements SmartLifecycle {
+    /** One phase ahead of the web server, which starts at {@code DEFAULT_PHASE - 1}. */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 2;
+    private static final List<RequiredIndex> REQUIRED_INDEXES = List.of(
+            new RequiredIndex(User.class, new Index("username", Sort.Direction.ASC).unique(), true, "username"),
+            new RequiredIndex(User.class, new Index("email", Sort.Direction.ASC).unique(), true, "email"),
+            new RequiredIndex(User.class, new Index()
+                    .on("username", Sort.Direction.ASC)
+                    .on("password", Sort.Direction.ASC)
+                    .on("roles", Sort.Direction.ASC), false, "username", "password", "roles"),
+            new RequiredIndex(RefreshToken.class, new Index("expiresAt", Sort.Direction.ASC)
+                    .expire(Duration.ZERO), false, "expiresAt"),
+            new RequiredIndex(RevokedToken.class, new Index("expiresAt", Sort.Direction.ASC)
+                    .expire(Duration.ZERO), false, "expiresAt"),
+            new RequiredIndex(RevokedToken.class, new Index("revokedAt", Sort.Direction.ASC), false, "revokedAt"),
+            new RequiredIndex(LoginEvent.class, new Index("expiresAt", Sort.Direction.ASC)
+                    .expire(Duration.ZERO), false, "expiresAt"),
+            new RequiredIndex(LoginEvent.class, new Index()
+                    .on("username", Sort.Direction.ASC)
+                    .on("at", Sort.Direction.DESC), false, "username", "at"),
+            new RequiredIndex(ServiceClient.class, new Index("updatedAt", Sort.Direction.ASC), false, "updatedAt"));
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final UserPartitions userPartitions;
+    private final boolean failFast;
+    private final Duration timeout;
+    private volatile boolean running;
+
+    public MongoIndexInitializer(ReactiveMongoTemplate mongoTemplate,
+                                 UserPartitions userPartitions,
+                                 @Value("${auth.mongo.indexes.fail-fast:false}") boolean failFast,
+                                 @Value("${auth.mongo.indexes.timeout:30s}") Duration timeout) {
+        this.mongoTemplate = mongoTemplate;
+        this.userPartitions = userPartitions;
+        this.failFast = failFast;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        List<String> missing;
+        try {
+            missing = ensureIndexes().block(timeout);
+        } catch (RuntimeException exception) {
+            report("Could not create the indexes: " + exception.getMessage(), exception);
+            return;
+        }
+        if (missing != null && !missing.isEmpty()) {
+            report("Missing indexes on " + missing, null);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Creates every index even when some fail, such as a unique index over existing duplicates, and
+     * then checks all of them, so one failure cannot leave the TTL indexes of other collections out.
+     */
+    private Mono<List<String>> ensureIndexes() {
+        List<Target> targets = targets();
+        return Flux.fromIterable(targets)
+                .concatMap(target -> target.indexOps().ensureIndex(target.required.index)
+                        .then()
+                        .onErrorResume(exception -> {
+                            log.warn("Could not create the index {}: {}", target, exception.getMessage());
+                            return Mono.empty();
+                        }))
+                .thenMany(Flux.fromIterable(targets))
+                .concatMap(target -> target.indexOps().getIndexInfo()
+                        .any(index -> index.isIndexForFields(target.required.fields)
+                                && (!target.required.unique || index.isUnique()))
+                        .onErrorReturn(false)
+                        .filter(present -> !present)
+                        .map(present -> target.toString()))
+                .collectList();
+    }
+
+    private List<Target> targets() {
+        List<Target> targets = new ArrayList<>();
+        for (RequiredIndex required : REQUIRED_INDEXES) {
+            if (required.entity == User.class) {
+                for (UserPartition partition : userPartitions.all()) {
+                    targets.add(new Target(required, partition.getMongoTemplate(), partition.getName()));
+                }
+            } else {
+                targets.add(new Target(required, mongoTemplate, null));
+            }
+        }
+        return targets;
+    }
+
+    private void report(String message, Throwable cause) {
+        if (failFast) {
+            throw new IllegalStateException(message, cause);
+        }
+        log.warn(message);
+    }
+
+    private static final class RequiredIndex {
+        private final Class<?> entity;
+        private final Index index;
+        private final boolean unique;
+        private final List<String> fields;
+
+        private RequiredIndex(Class<?> entity, Index index, boolean unique, String... fields) {
+            this.entity = entity;
+            this.index = index;
+            this.unique = unique;
+            this.fields = List.of(fields);
+        }
+
+        @Override
+        public String toString() {
+            return entity.getSimpleName() + fields;
+        }
+    }
+
+    private static final class Target {
+        private final RequiredIndex required;
+        private final ReactiveMongoTemplate mongoTemplate;
+        private final String partition;
+
+        private Target(RequiredIndex required, ReactiveMongoTemplate mongoTemplate, String partition) {
+            this.required = required;
+            this.mongoTemplate = mongoTemplate;
+            this.partition = partition;
+        }
+
+        private ReactiveIndexOperations indexOps() {
+            return mongoTemplate.indexOps(required.entity);
+        }
+
+        @Override
+        public String toString() {
+            return partition == null ? required.toString() : partition + ":" + required;
+        }
+    }
+}
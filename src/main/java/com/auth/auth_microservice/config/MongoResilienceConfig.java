@@ -0,0 +1,17 @@
+package com.auth.auth_microservice.config;
+
+import com.auth.auth_microservice.repository.MongoResilience;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(MongoResilienceProperties.class)
+public class MongoResilienceConfig {
+
+    @Bean
+    public MongoResilience mongoResilience(MongoResilienceProperties properties, MeterRegistry meterRegistry) {
+        return new MongoResilience(properties, meterRegistry);
+    }
+}
@@ -0,0 +1,63 @@
+package com.auth.auth_microservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.mongo.resilience")
+public class MongoResilienceProperties {
+    /** Timeout of operations without an entry in {@code timeouts}. */
+    private Duration timeout = Duration.ofSeconds(2);
+    /** Timeout per operation name; for streams it only bounds the wait for the first element. */
+    private Map<String, Duration> timeouts = new HashMap<>(Map.of(
+            "lookup", Duration.ofSeconds(1),
+            "import", Duration.ofSeconds(30),
+            "stream", Duration.ofSeconds(5)));
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private Bulkhead bulkhead = new Bulkhead();
+
+    public Duration timeout(String operation) {
+        return timeouts.getOrDefault(operation, timeout);
+    }
+
+    public int maxConcurrentCalls(String operation) {
+        return bulkhead.getOperations().getOrDefault(operation, bulkhead.getMaxConcurrentCalls());
+    }
+
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+        /** Percentage of failed calls in the window that opens the circuit. */
+        private float failureRateThreshold = 50;
+        /** Calls slower than this count towards {@code slowCallRateThreshold}. */
+        private Duration slowCallDuration = Duration.ofSeconds(1);
+        private float slowCallRateThreshold = 80;
+        private int slidingWindowSize = 50;
+        private int minimumNumberOfCalls = 20;
+        private Duration waitDurationInOpenState = Duration.ofSeconds(10);
+        /** Probe calls let through while half-open. */
+        private int permittedCallsInHalfOpenState = 5;
+    }
+
+    @Getter
+    @Setter
+    public static class Bulkhead {
+        /** Concurrent calls of each operation without an entry in {@code operations}. */
+        private int maxConcurrentCalls = 100;
+        /**
+         * Concurrent calls per operation name. Background and bulk writes get a small share, so
+         * together with the others they stay within the driver's connection pool.
+         */
+        private Map<String, Integer> operations = new HashMap<>(Map.of(
+                "audit", 8,
+                "import", 4));
+        /** Concurrent long-running streams, which hold a permit until they complete. */
+        private int maxConcurrentStreams = 8;
+    }
+}
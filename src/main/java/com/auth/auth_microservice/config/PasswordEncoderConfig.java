@@ -0,0 +1,136 @@
+package com.auth.auth_microservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Builds a {@link DelegatingPasswordEncoder} that writes {@code {id}}-prefixed hashes with the
+ * configured algorithm and still matches the others. Hashes stored before the prefix existed are
+ * BCrypt and are matched as such. A hash written with another algorithm, or with a lower BCrypt or
+ * Argon2 cost than the current settings, reports {@link PasswordEncoder#upgradeEncoding(String)} and is rehashed on the next login.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(PasswordEncodingProperties.class)
+public class PasswordEncoderConfig {
+    private static final String BCRYPT = "bcrypt";
+    private static final String PBKDF2 = "pbkdf2";
+    private static final String ARGON2 = "argon2";
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+    private static final int CALIBRATION_ROUNDS = 3;
+    private static final int MAX_BCRYPT_STRENGTH = 16;
+    private static final int MAX_PBKDF2_ITERATIONS = 10_000_000;
+    private static final int MAX_ARGON2_ITERATIONS = 20;
+
+    @Bean
+    public PasswordEncoder passwordEncoder(PasswordEncodingProperties properties) {
+        String algorithm = properties.getAlgorithm().toLowerCase();
+        Duration budget = properties.getTargetLatency();
+        Duration limit = properties.getCalibrationLimit();
+        int bcryptStrength = properties.getBcrypt().getStrength();
+        int pbkdf2Iterations = properties.getPbkdf2().getIterations();
+        int argon2Iterations = properties.getArgon2().getIterations();
+        if (!budget.isZero()) {
+            switch (algorithm) {
+                case BCRYPT:
+                    bcryptStrength = calibrate(bcryptStrength, MAX_BCRYPT_STRENGTH, strength -> strength + 1,
+                            PasswordEncoderConfig::bcrypt, budget, limit);
+                    break;
+                case PBKDF2:
+                    pbkdf2Iterations = calibrate(pbkdf2Iterations, MAX_PBKDF2_ITERATIONS,
+                            iterations -> iterations * 2, PasswordEncoderConfig::pbkdf2, budget, limit);
+                    break;
+                case ARGON2:
+                    PasswordEncodingProperties.Argon2 argon2 = properties.getArgon2();
+                    argon2Iterations = calibrate(argon2Iterations, MAX_ARGON2_ITERATIONS,
+                            iterations -> iterations + 1, iterations -> argon2(argon2, iterations), budget, limit);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt(bcryptStrength));
+        encoders.put(PBKDF2, pbkdf2(pbkdf2Iterations));
+        encoders.put(ARGON2, argon2(properties.getArgon2(), argon2Iterations));
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalArgumentException("Unsupported password hashing algorithm " + algorithm);
+        }
+        log.info("Hashing new passwords with {} (bcrypt strength {}, pbkdf2 iterations {}, argon2 iterations {})",
+                algorithm, bcryptStrength, pbkdf2Iterations, argon2Iterations);
+
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(encoders.get(BCRYPT));
+        return passwordEncoder;
+    }
+
+    /**
+     * Raises {@code cost} while the next step still hashes within {@code budget}. Never goes below the
+     * configured cost, so a slow machine keeps the configured minimum instead of weakening hashes.
+     * Stops stepping once {@code limit} has passed, so a high budget cannot hold up startup; the cost
+     * reached by then is used.
+     */
+    static int calibrate(int cost, int maxCost, IntUnaryOperator next,
+                         IntFunction<PasswordEncoder> encoder, Duration budget, Duration limit) {
+        long budgetNanos = budget.toNanos();
+        long start = System.nanoTime();
+        int calibrated = cost;
+        long calibratedNanos = measure(encoder.apply(calibrated));
+        while (calibrated < maxCost && calibratedNanos <= budgetNanos) {
+            if (System.nanoTime() - start >= limit.toNanos()) {
+                log.info("Stopped calibrating at cost {} after the {} limit", calibrated, limit);
+                break;
+            }
+            int candidate = Math.min(next.applyAsInt(calibrated), maxCost);
+            long candidateNanos = measure(encoder.apply(candidate));
+            if (candidateNanos > budgetNanos) {
+                break;
+            }
+            calibrated = candidate;
+            calibratedNanos = candidateNanos;
+        }
+        if (calibratedNanos > budgetNanos) {
+            log.warn("A password hash at cost {} exceeds the {} budget", calibrated, budget);
+        }
+        return calibrated;
+    }
+
+    private static long measure(PasswordEncoder encoder) {
+        encoder.encode(CALIBRATION_PASSWORD);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            encoder.encode(CALIBRATION_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static PasswordEncoder bcrypt(int strength) {
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    private static PasswordEncoder pbkdf2(int iterations) {
+        Pbkdf2PasswordEncoder encoder = new Pbkdf2PasswordEncoder("", 16, iterations, 256);
+        encoder.setAlgorithm(Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+        return encoder;
+    }
+
+    private static PasswordEncoder argon2(PasswordEncodingProperties.Argon2 properties, int iterations) {
+        return new Argon2PasswordEncoder(16, 32, properties.getParallelism(), properties.getMemory(), iterations);
+    }
+}
@@ -0,0 +1,46 @@
+package com.auth.auth_microservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.hashing")
+public class PasswordEncodingProperties {
+    /** Encoder for new hashes: bcrypt, pbkdf2 or argon2. Stored hashes of the others still match. */
+    private String algorithm = "bcrypt";
+    /**
+     * Time one hash may take on this machine. When set, the cost of the selected algorithm is raised
+     * at startup until a hash fills the budget; the configured cost is kept as the minimum.
+     */
+    private Duration targetLatency = Duration.ZERO;
+    /** Longest time the startup calibration keeps raising the cost; the cost reached by then is used. */
+    private Duration calibrationLimit = Duration.ofSeconds(2);
+    private Bcrypt bcrypt = new Bcrypt();
+    private Pbkdf2 pbkdf2 = new Pbkdf2();
+    private Argon2 argon2 = new Argon2();
+
+    @Getter
+    @Setter
+    public static class Bcrypt {
+        private int strength = 10;
+    }
+
+    @Getter
+    @Setter
+    public static class Pbkdf2 {
+        private int iterations = 310_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Argon2 {
+        /** Memory in KiB. */
+        private int memory = 19_456;
+        private int iterations = 2;
+        private int parallelism = 1;
+    }
+}
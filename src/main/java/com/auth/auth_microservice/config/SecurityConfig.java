@@ -1,24 +1,34 @@
 package com.auth.auth_microservice.config;
 
 
+import com.auth.auth_microservice.security.Authorities;
+import com.auth.auth_microservice.security.BearerTokenEntryPoint;
 import com.auth.auth_microservice.security.JwtAuthenticationFilter;
+import com.auth.auth_microservice.security.TokenVerifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 
+/**
+ * The security chain. {@link JwtAuthenticationFilter} is built here rather than registered as a
+ * bean: WebFlux adds every {@code WebFilter} bean to the application chain, which would verify each
+ * bearer token a second time outside the security chain.
+ */
 @EnableWebFluxSecurity
 @Configuration
 public class SecurityConfig {
+    private static final String ADMIN = "ROLE_" + Authorities.ADMIN;
+    private static final String USERS_READ = "SCOPE_users:read";
+    private static final String USERS_WRITE = "SCOPE_users:write";
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
-        this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+    public SecurityConfig(TokenVerifier tokenVerifier) {
+        this.jwtAuthenticationFilter = new JwtAuthenticationFilter(tokenVerifier);
     }
 
     @Bean
@@ -27,16 +37,16 @@ public class SecurityConfig {
                 .csrf(ServerHttpSecurity.CsrfSpec::disable)
                 .authorizeExchange(
                         exchange -> exchange
-                                .pathMatchers("/auth/login", "/auth/register").permitAll()
-                                .pathMatchers("/auth").authenticated()
+                                .pathMatchers("/auth/login", "/auth/register", "/auth/refresh", "/auth/token").permitAll()
+                                .pathMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                                .pathMatchers("/.well-known/jwks.json").permitAll()
+                                .pathMatchers(HttpMethod.GET, "/auth").hasAnyAuthority(ADMIN, USERS_READ)
+                                .pathMatchers(HttpMethod.POST, "/auth/import").hasAnyAuthority(ADMIN, USERS_WRITE)
+                                .pathMatchers("/auth/clients", "/auth/clients/**").hasAuthority(ADMIN)
                                 .anyExchange().authenticated()
                 )
+                .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(new BearerTokenEntryPoint()))
                 .addFilterBefore(jwtAuthenticationFilter, SecurityWebFiltersOrder.AUTHENTICATION)
                 .build();
     }
-
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
 }
@@ -0,0 +1,66 @@
+package com.auth.auth_microservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Comparator;
+
+/**
+ * Logs how long the instance took from JVM start to accepting traffic, and the slowest bean
+ * creations when the startup was recorded with a {@link BufferingApplicationStartup}. Warns when
+ * the time exceeds {@code auth.startup.budget}.
+ */
+@Slf4j
+@Component
+public class StartupReport implements ApplicationListener<ApplicationReadyEvent> {
+    private static final String BEAN_INSTANTIATION = "spring.beans.instantiate";
+
+    private final ApplicationStartup applicationStartup;
+    private final Duration budget;
+    private final int slowestBeans;
+
+    public StartupReport(ApplicationStartup applicationStartup,
+                         @Value("${auth.startup.budget:30s}") Duration budget,
+                         @Value("${auth.startup.report.beans:10}") int slowestBeans) {
+        this.applicationStartup = applicationStartup;
+        this.budget = budget;
+        this.slowestBeans = slowestBeans;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (applicationStartup instanceof BufferingApplicationStartup) {
+            StartupTimeline timeline = ((BufferingApplicationStartup) applicationStartup).getBufferedTimeline();
+            timeline.getEvents().stream()
+                    .filter(step -> BEAN_INSTANTIATION.equals(step.getStartupStep().getName()))
+                    .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                    .limit(slowestBeans)
+                    .forEach(step -> log.info("Startup: {} ms creating {}", step.getDuration().toMillis(),
+                            beanName(step.getStartupStep())));
+        }
+        Duration elapsed = Duration.ofMillis(ManagementFactory.getRuntimeMXBean().getUptime());
+        if (elapsed.compareTo(budget) > 0) {
+            log.warn("Ready after {} ms, over the startup budget of {} ms", elapsed.toMillis(), budget.toMillis());
+        } else {
+            log.info("Ready after {} ms, within the startup budget of {} ms", elapsed.toMillis(), budget.toMillis());
+        }
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return step.getName();
+    }
+}
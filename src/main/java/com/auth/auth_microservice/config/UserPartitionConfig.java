@@ -0,0 +1,32 @@
+package com.auth.auth_microservice.config;
+
+import com.auth.auth_microservice.repository.UserPartition;
+import com.auth.auth_microservice.repository.UserPartitions;
+import com.auth.auth_microservice.repository.UserRepository;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(UserPartitioningProperties.class)
+public class UserPartitionConfig {
+
+    @Bean
+    public UserPartitions userPartitions(UserPartitioningProperties properties,
+                                         ReactiveMongoTemplate mongoTemplate,
+                                         UserRepository userRepository) {
+        if (properties.getPartitions().isEmpty()) {
+            return new UserPartitions(List.of(new UserPartition("primary", mongoTemplate, userRepository)),
+                    properties.getVirtualNodes());
+        }
+        List<UserPartition> partitions = new ArrayList<>();
+        for (UserPartitioningProperties.Partition partition : properties.getPartitions()) {
+            partitions.add(UserPartition.connect(partition.getName(), partition.getUri(), mongoTemplate.getConverter()));
+        }
+        return new UserPartitions(partitions, properties.getVirtualNodes());
+    }
+}
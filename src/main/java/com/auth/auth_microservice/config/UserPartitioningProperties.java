@@ -0,0 +1,27 @@
+package com.auth.auth_microservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.users.partitioning")
+public class UserPartitioningProperties {
+    /** Databases sharing the users; when empty all users stay in the primary database. */
+    private List<Partition> partitions = new ArrayList<>();
+    /** Points per partition on the hash ring; more points spread users more evenly. */
+    private int virtualNodes = 160;
+
+    @Getter
+    @Setter
+    public static class Partition {
+        /** Stable name, it decides which users the partition owns; never rename a partition holding users. */
+        private String name;
+        /** Connection string including the database, e.g. {@code mongodb://users-1:27017/auth}. */
+        private String uri;
+    }
+}
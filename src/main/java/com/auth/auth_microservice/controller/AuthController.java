@@ -1,11 +1,22 @@
 package com.auth.auth_microservice.controller;
 
+import com.auth.auth_microservice.exceptions.InvalidRequest;
 import com.auth.auth_microservice.model.AuthRequest;
+import com.auth.auth_microservice.model.ImportResult;
+import com.auth.auth_microservice.model.IntrospectionRequest;
+import com.auth.auth_microservice.model.RefreshRequest;
+import com.auth.auth_microservice.model.TokenPair;
 import com.auth.auth_microservice.model.User;
+import com.auth.auth_microservice.model.UserView;
+import com.auth.auth_microservice.security.Authorities;
 import com.auth.auth_microservice.service.AuthService;
+import com.auth.auth_microservice.service.TokenIntrospectionService;
+import com.auth.auth_microservice.service.UserImportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
-import reactor.adapter.rxjava.RxJava3Adapter;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -16,25 +27,89 @@ import java.util.Map;
 @RequestMapping("/auth")
 public class AuthController {
     private final AuthService authService;
+    private final UserImportService userImportService;
+    private final TokenIntrospectionService tokenIntrospectionService;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService,
+                          UserImportService userImportService,
+                          TokenIntrospectionService tokenIntrospectionService) {
         this.authService = authService;
+        this.userImportService = userImportService;
+        this.tokenIntrospectionService = tokenIntrospectionService;
     }
 
     @PostMapping("/login")
     public Mono<ResponseEntity<Map<String, String>>> login(@Valid @RequestBody AuthRequest authRequest) {
-        return RxJava3Adapter.singleToMono(authService.authenticate(authRequest)
-                .map(token -> ResponseEntity.ok().body(Map.of("token", token))));
+        return authService.authenticate(authRequest)
+                .map(AuthController::tokenResponse);
+    }
+
+    @PostMapping("/refresh")
+    public Mono<ResponseEntity<Map<String, String>>> refresh(@Valid @RequestBody RefreshRequest refreshRequest) {
+        return authService.refresh(refreshRequest.getRefreshToken())
+                .map(AuthController::tokenResponse);
+    }
+
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<Void>> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                             @RequestBody(required = false) RefreshRequest refreshRequest) {
+        String accessToken = authorization.startsWith("Bearer ") ? authorization.substring(7) : authorization;
+        String refreshToken = refreshRequest == null ? null : refreshRequest.getRefreshToken();
+        return authService.logout(accessToken, refreshToken)
+                .thenReturn(ResponseEntity.noContent().build());
     }
 
     @PostMapping("/register")
     public Mono<ResponseEntity<User>> register(@Valid @RequestBody User user) {
-        return RxJava3Adapter.singleToMono(authService.register(user))
+        return authService.register(user)
                 .map(userResponse -> ResponseEntity.ok().body(userResponse));
     }
 
-    @GetMapping
-    public Flux<User> getAll() {
-        return RxJava3Adapter.flowableToFlux(authService.getAll());
+    /**
+     * Answers {@code {"token": ..}} with one result and {@code {"tokens": [..]}} with an array of
+     * results in the same order.
+     */
+    @PostMapping(value = "/introspect", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Object>> introspect(@RequestBody IntrospectionRequest request) {
+        if (request.getTokens() != null) {
+            return tokenIntrospectionService.introspect(request.getTokens())
+                    .collectList()
+                    .map(results -> ResponseEntity.ok().<Object>body(results));
+        }
+        if (request.getToken() == null) {
+            return Mono.error(new InvalidRequest("Expected a token or tokens"));
+        }
+        return tokenIntrospectionService.introspect(request.getToken())
+                .map(result -> ResponseEntity.ok().<Object>body(result));
+    }
+
+    /**
+     * Service clients holding {@code users:write} may import users, but only administrators may
+     * give them roles.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ImportResult> importUsers(@RequestBody Flux<User> users,
+                                          @RequestParam(defaultValue = "false") boolean prehashed,
+                                          Authentication authentication) {
+        return userImportService.importUsers(users, prehashed,
+                Authorities.hasRole(authentication, Authorities.ADMIN));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<UserView> getAll(@RequestParam(required = false) String after,
+                                 @RequestParam(defaultValue = "20") int size) {
+        return authService.getAll(after, size);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserView> streamAll(@RequestParam(required = false) String after) {
+        return authService.streamAll(after);
+    }
+
+    private static ResponseEntity<Map<String, String>> tokenResponse(TokenPair tokens) {
+        return ResponseEntity.ok().body(Map.of(
+                "token", tokens.getToken(),
+                "refreshToken", tokens.getRefreshToken()));
     }
 }
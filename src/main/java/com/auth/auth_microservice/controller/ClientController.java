@@ -0,0 +1,97 @@
+package com.auth.auth_microservice.controller;
+
+import com.auth.auth_microservice.exceptions.InvalidCredentials;
+import com.auth.auth_microservice.exceptions.InvalidRequest;
+import com.auth.auth_microservice.model.ClientRegistration;
+import com.auth.auth_microservice.model.ClientRegistrationRequest;
+import com.auth.auth_microservice.model.ClientToken;
+import com.auth.auth_microservice.service.ClientCredentialsService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * The client-credentials grant of RFC 6749 section 4.4 for service-to-service callers, and the
+ * registration of those clients.
+ */
+@RestController
+@RequestMapping("/auth")
+public class ClientController {
+    private static final String CLIENT_CREDENTIALS = "client_credentials";
+    private static final String BASIC = "Basic ";
+
+    private final ClientCredentialsService clientCredentialsService;
+
+    public ClientController(ClientCredentialsService clientCredentialsService) {
+        this.clientCredentialsService = clientCredentialsService;
+    }
+
+    /**
+     * Client credentials come from HTTP Basic authentication or the {@code client_id} and
+     * {@code client_secret} form fields.
+     */
+    @PostMapping(value = "/token", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<ClientToken>> token(ServerWebExchange exchange) {
+        String authorization = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        return exchange.getFormData().flatMap(form -> token(authorization, form));
+    }
+
+    private Mono<ResponseEntity<ClientToken>> token(String authorization, MultiValueMap<String, String> form) {
+        if (!CLIENT_CREDENTIALS.equals(form.getFirst("grant_type"))) {
+            return Mono.error(new InvalidRequest("Only the client_credentials grant type is supported"));
+        }
+        String clientId = form.getFirst("client_id");
+        String clientSecret = form.getFirst("client_secret");
+        if (authorization != null && authorization.startsWith(BASIC)) {
+            String[] credentials = decodeBasic(authorization);
+            if (credentials == null) {
+                return Mono.error(new InvalidCredentials("The client credentials are invalid"));
+            }
+            clientId = credentials[0];
+            clientSecret = credentials[1];
+        }
+        if (clientId == null || clientSecret == null) {
+            return Mono.error(new InvalidRequest("Expected client credentials"));
+        }
+        return clientCredentialsService.issueToken(clientId, clientSecret, form.getFirst("scope"))
+                .map(token -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.noStore())
+                        .body(token));
+    }
+
+    @PostMapping(value = "/clients", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<ClientRegistration>> register(@Valid @RequestBody ClientRegistrationRequest request) {
+        return clientCredentialsService.register(request)
+                .map(registration -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.noStore())
+                        .body(registration));
+    }
+
+    @DeleteMapping("/clients/{clientId}")
+    public Mono<ResponseEntity<Void>> disable(@PathVariable String clientId) {
+        return clientCredentialsService.disable(clientId)
+                .thenReturn(ResponseEntity.noContent().build());
+    }
+
+    private static String[] decodeBasic(String authorization) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getDecoder().decode(authorization.substring(BASIC.length())),
+                    StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException exception) {
+            return null;
+        }
+        int colon = decoded.indexOf(':');
+        return colon < 0 ? null : new String[]{decoded.substring(0, colon), decoded.substring(colon + 1)};
+    }
+}
@@ -0,0 +1,143 @@
+package com.auth.auth_microservice.controller;
+
+import com.auth.auth_microservice.security.JwtKey;
+import com.auth.auth_microservice.security.JwtKeyRing;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.math.BigInteger;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes the public signing keys so other services verify tokens locally. The document is
+ * rendered once per key set and served with an ETag.
+ */
+@RestController
+public class JwksController {
+    private final JwtKeyRing keyRing;
+    private final ObjectMapper objectMapper;
+    private final CacheControl cacheControl;
+    private volatile Jwks jwks;
+
+    public JwksController(JwtKeyRing keyRing,
+                          ObjectMapper objectMapper,
+                          @Value("${jwt.jwks.max-age:5m}") Duration maxAge) {
+        this.keyRing = keyRing;
+        this.objectMapper = objectMapper;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    @GetMapping(path = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<byte[]>> jwks(ServerHttpRequest request) {
+        Jwks current = current();
+        if (request.getHeaders().getIfNoneMatch().contains(current.etag)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(current.etag)
+                    .cacheControl(cacheControl)
+                    .build());
+        }
+        return Mono.just(ResponseEntity.ok()
+                .eTag(current.etag)
+                .cacheControl(cacheControl)
+                .body(current.body));
+    }
+
+    private Jwks current() {
+        List<JwtKey> published = keyRing.publishedKeys(Instant.now());
+        List<String> kids = published.stream().map(JwtKey::getKid).collect(Collectors.toList());
+        Jwks current = jwks;
+        if (current == null || !current.kids.equals(kids)) {
+            current = render(published, kids);
+            jwks = current;
+        }
+        return current;
+    }
+
+    private Jwks render(List<JwtKey> published, List<String> kids) {
+        List<Map<String, String>> keys = published.stream()
+                .map(JwksController::toJwk)
+                .collect(Collectors.toList());
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(Map.of("keys", keys));
+            return new Jwks(kids, body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("Could not render the JWKS document", exception);
+        }
+    }
+
+    private static Map<String, String> toJwk(JwtKey key) {
+        Map<String, String> jwk = new LinkedHashMap<>();
+        jwk.put("kid", key.getKid());
+        jwk.put("use", "sig");
+        jwk.put("alg", key.getAlgorithm().getValue());
+        if (key.getVerificationKey() instanceof ECPublicKey) {
+            ECPublicKey publicKey = (ECPublicKey) key.getVerificationKey();
+            int size = (publicKey.getParams().getCurve().getField().getFieldSize() + 7) / 8;
+            jwk.put("kty", "EC");
+            jwk.put("crv", curve(size));
+            jwk.put("x", base64Url(publicKey.getW().getAffineX(), size));
+            jwk.put("y", base64Url(publicKey.getW().getAffineY(), size));
+        } else {
+            RSAPublicKey publicKey = (RSAPublicKey) key.getVerificationKey();
+            jwk.put("kty", "RSA");
+            jwk.put("n", base64Url(publicKey.getModulus(), 0));
+            jwk.put("e", base64Url(publicKey.getPublicExponent(), 0));
+        }
+        return jwk;
+    }
+
+    private static String curve(int size) {
+        switch (size) {
+            case 32:
+                return "P-256";
+            case 48:
+                return "P-384";
+            default:
+                return "P-521";
+        }
+    }
+
+    private static String base64Url(BigInteger value, int size) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (bytes.length < size) {
+            byte[] padded = new byte[size];
+            System.arraycopy(bytes, 0, padded, size - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static final class Jwks {
+        private final List<String> kids;
+        private final byte[] body;
+        private final String etag;
+
+        private Jwks(List<String> kids, byte[] body, String etag) {
+            this.kids = kids;
+            this.body = body;
+            this.etag = etag;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.auth.auth_microservice.exceptions;
+
+import java.time.Duration;
+
+/**
+ * Base of the expected failures of the service. They are control flow rather than bugs, raised
+ * on every failed login, so they capture no stack trace and accept no suppressed exceptions.
+ */
+public abstract class AuthException extends RuntimeException {
+    private final ErrorCode errorCode;
+
+    protected AuthException(ErrorCode errorCode, String message) {
+        super(message, null, false, false);
+        this.errorCode = errorCode;
+    }
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+
+    /**
+     * @return when the client should retry, or {@code null} when unknown
+     */
+    public Duration getRetryAfter() {
+        return null;
+    }
+}
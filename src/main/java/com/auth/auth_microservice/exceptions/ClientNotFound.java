@@ -1,7 +1,7 @@
 package com.auth.auth_microservice.exceptions;
 
-public class ClientNotFound extends RuntimeException {
+public class ClientNotFound extends AuthException {
     public ClientNotFound(String message) {
-        super(message);
+        super(ErrorCode.CLIENT_NOT_FOUND, message);
     }
 }
@@ -0,0 +1,33 @@
+package com.auth.auth_microservice.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Stable, machine readable error codes returned in the {@code code} field of error bodies.
+ * Clients should branch on these rather than on messages, which may change.
+ */
+public enum ErrorCode {
+    INVALID_REQUEST("invalid_request", HttpStatus.BAD_REQUEST),
+    CLIENT_NOT_FOUND("client_not_found", HttpStatus.NOT_FOUND),
+    RESOURCE_NOT_FOUND("resource_not_found", HttpStatus.NOT_FOUND),
+    INVALID_CREDENTIALS("invalid_credentials", HttpStatus.UNAUTHORIZED),
+    TOO_MANY_ATTEMPTS("too_many_attempts", HttpStatus.TOO_MANY_REQUESTS),
+    SERVICE_UNAVAILABLE("service_unavailable", HttpStatus.SERVICE_UNAVAILABLE),
+    INTERNAL_ERROR("internal_error", HttpStatus.INTERNAL_SERVER_ERROR);
+
+    private final String code;
+    private final HttpStatus status;
+
+    ErrorCode(String code, HttpStatus status) {
+        this.code = code;
+        this.status = status;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
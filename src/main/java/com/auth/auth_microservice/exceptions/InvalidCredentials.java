@@ -1,7 +1,7 @@
 package com.auth.auth_microservice.exceptions;
 
-public class InvalidCredentials extends RuntimeException {
+public class InvalidCredentials extends AuthException {
     public InvalidCredentials(String message) {
-        super(message);
+        super(ErrorCode.INVALID_CREDENTIALS, message);
     }
 }
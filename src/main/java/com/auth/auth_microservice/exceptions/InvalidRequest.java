@@ -0,0 +1,7 @@
+package com.auth.auth_microservice.exceptions;
+
+public class InvalidRequest extends AuthException {
+    public InvalidRequest(String message) {
+        super(ErrorCode.INVALID_REQUEST, message);
+    }
+}
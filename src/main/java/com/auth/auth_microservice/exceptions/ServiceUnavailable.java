@@ -0,0 +1,21 @@
+package com.auth.auth_microservice.exceptions;
+
+import java.time.Duration;
+
+public class ServiceUnavailable extends AuthException {
+    private final Duration retryAfter;
+
+    public ServiceUnavailable(String message) {
+        this(message, null);
+    }
+
+    public ServiceUnavailable(String message, Duration retryAfter) {
+        super(ErrorCode.SERVICE_UNAVAILABLE, message);
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
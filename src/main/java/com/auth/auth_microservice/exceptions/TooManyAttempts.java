@@ -0,0 +1,17 @@
+package com.auth.auth_microservice.exceptions;
+
+import java.time.Duration;
+
+public class TooManyAttempts extends AuthException {
+    private final Duration retryAfter;
+
+    public TooManyAttempts(String message, Duration retryAfter) {
+        super(ErrorCode.TOO_MANY_ATTEMPTS, message);
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,48 @@
+package com.auth.auth_microservice.exceptions.handler;
+
+import com.auth.auth_microservice.exceptions.ErrorCode;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JSON error bodies, {@code {"code":..,"message":..}}, encoded once per code and message. Error
+ * messages are constants, so each cache holds a handful of entries; the bound only guards against
+ * a message that embeds request data.
+ */
+@Component
+public class ErrorBodies {
+    private static final int MAX_MESSAGES_PER_CODE = 64;
+
+    private final ObjectMapper objectMapper;
+    private final Map<ErrorCode, Cache<String, byte[]>> bodies = new EnumMap<>(ErrorCode.class);
+
+    public ErrorBodies(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            bodies.put(errorCode, Caffeine.newBuilder().maximumSize(MAX_MESSAGES_PER_CODE).build());
+        }
+    }
+
+    public byte[] get(ErrorCode errorCode, String message) {
+        String key = message == null ? "" : message;
+        return bodies.get(errorCode).get(key, value -> encode(errorCode, value));
+    }
+
+    private byte[] encode(ErrorCode errorCode, String message) {
+        Map<String, String> body = new LinkedHashMap<>();
+        body.put("code", errorCode.getCode());
+        body.put("message", message);
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
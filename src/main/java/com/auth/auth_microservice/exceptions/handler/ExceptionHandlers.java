@@ -1,9 +1,13 @@
 package com.auth.auth_microservice.exceptions.handler;
 
-import com.auth.auth_microservice.exceptions.ClientNotFound;
-import com.auth.auth_microservice.exceptions.InvalidCredentials;
+import com.auth.auth_microservice.exceptions.AuthException;
+import com.auth.auth_microservice.exceptions.ErrorCode;
+import com.auth.auth_microservice.security.TokenBucket;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -11,40 +15,63 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Maps {@link AuthException}s to their status and a cached JSON body. Anything else is a 500 with
+ * a generic body; those are logged with their stack trace, at most {@code auth.errors.log.capacity}
+ * per period so a failing dependency cannot flood the log.
+ */
 @Slf4j
 @RestControllerAdvice
 public class ExceptionHandlers {
+    private static final String INTERNAL_ERROR_MESSAGE = "Internal server error";
 
-    @ExceptionHandler({
-            RuntimeException.class,
-            ClientNotFound.class,
-            InvalidCredentials.class})
-    public Mono<ResponseEntity<Map<String, String>>> handleExceptions(RuntimeException exception) {
-        HttpStatus status = getStatus(exception);
-        return Mono.just(ResponseEntity.status(status).body(
-                Map.of("message", exception.getMessage())
-        ));
+    private final ErrorBodies errorBodies;
+    private final TokenBucket errorLog;
+    private final AtomicLong suppressedErrors = new AtomicLong();
+
+    public ExceptionHandlers(ErrorBodies errorBodies,
+                             @Value("${auth.errors.log.capacity:10}") int logCapacity,
+                             @Value("${auth.errors.log.period:1m}") Duration logPeriod) {
+        this.errorBodies = errorBodies;
+        this.errorLog = new TokenBucket(logCapacity, logPeriod);
+    }
+
+    @ExceptionHandler(AuthException.class)
+    public Mono<ResponseEntity<byte[]>> handleAuthException(AuthException exception) {
+        ErrorCode errorCode = exception.getErrorCode();
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(errorCode.getStatus())
+                .contentType(MediaType.APPLICATION_JSON);
+        Duration retryAfter = exception.getRetryAfter();
+        if (retryAfter != null) {
+            long seconds = Math.max(1, retryAfter.toSeconds());
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+        }
+        return Mono.just(response.body(errorBodies.get(errorCode, exception.getMessage())));
     }
 
-    public HttpStatus getStatus(RuntimeException exception) {
-        if (exception instanceof ClientNotFound) {
-            return HttpStatus.NOT_FOUND;
-        } else if (exception instanceof InvalidCredentials) {
-            return HttpStatus.UNAUTHORIZED;
+    @ExceptionHandler(RuntimeException.class)
+    public Mono<ResponseEntity<byte[]>> handleExceptions(RuntimeException exception) {
+        if (errorLog.tryAcquire(System.nanoTime())) {
+            log.error("Problem in internal Server: {} ({} similar errors not logged)", exception.getMessage(),
+                    suppressedErrors.getAndSet(0), exception);
         } else {
-            log.error("Problem in internal Server: " + exception.getMessage());
-            return HttpStatus.INTERNAL_SERVER_ERROR;
+            suppressedErrors.incrementAndGet();
         }
+        return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorBodies.get(ErrorCode.INTERNAL_ERROR, INTERNAL_ERROR_MESSAGE)));
     }
 
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public Mono<Map<String, String>> handleValidationException(MethodArgumentNotValidException exception) {
         Map<String, String> errorsResponse = new HashMap<>();
-        log.error("Problem in validation data: " + exception.getMessage());
+        log.debug("Problem in validation data: {}", exception.getMessage());
         exception.getBindingResult()
                 .getFieldErrors()
                 .forEach(error -> errorsResponse.put(error.getField(), error.getDefaultMessage()));
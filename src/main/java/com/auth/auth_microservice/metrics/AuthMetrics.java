@@ -0,0 +1,116 @@
+package com.auth.auth_microservice.metrics;
+
+import com.auth.auth_microservice.exceptions.ClientNotFound;
+import com.auth.auth_microservice.exceptions.InvalidCredentials;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for each stage of the login, register and client token paths. Percentiles and histograms
+ * for every {@code auth.*} timer are configured in {@code application.properties}.
+ */
+@Component
+public class AuthMetrics {
+    private final MeterRegistry meterRegistry;
+    private final Timer mongoLookup;
+    private final Timer tokenSign;
+    private final Timer tokenVerify;
+    private final Outcomes login;
+    private final Outcomes register;
+    private final Outcomes clientToken;
+
+    public AuthMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.mongoLookup = Timer.builder("auth.mongo.lookup").register(meterRegistry);
+        this.tokenSign = Timer.builder("auth.token.sign").register(meterRegistry);
+        this.tokenVerify = Timer.builder("auth.token.verify").register(meterRegistry);
+        this.login = new Outcomes(meterRegistry, "login");
+        this.register = new Outcomes(meterRegistry, "register");
+        this.clientToken = new Outcomes(meterRegistry, "client_token");
+    }
+
+    public void monitor(Cache<?, ?> cache, String name) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    public Timer tokenSign() {
+        return tokenSign;
+    }
+
+    public Timer tokenVerify() {
+        return tokenVerify;
+    }
+
+    public Counter tokenRejected(String reason) {
+        return Counter.builder("auth.token.rejected")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> timeMongoLookup(Mono<T> lookup) {
+        return timed(mongoLookup, lookup);
+    }
+
+    public <T> Mono<T> recordLogin(Mono<T> login) {
+        return this.login.record(login);
+    }
+
+    public <T> Mono<T> recordRegister(Mono<T> register) {
+        return this.register.record(register);
+    }
+
+    public <T> Mono<T> recordClientToken(Mono<T> clientToken) {
+        return this.clientToken.record(clientToken);
+    }
+
+    public static <T> Mono<T> timed(Timer timer, Mono<T> source) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return source.doFinally(signal -> timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    private static final class Outcomes {
+        private final Counter success;
+        private final Counter clientNotFound;
+        private final Counter invalidCredentials;
+        private final Counter other;
+
+        private Outcomes(MeterRegistry meterRegistry, String operation) {
+            this.success = counter(meterRegistry, operation, "success");
+            this.clientNotFound = counter(meterRegistry, operation, "client_not_found");
+            this.invalidCredentials = counter(meterRegistry, operation, "invalid_credentials");
+            this.other = counter(meterRegistry, operation, "other");
+        }
+
+        private <T> Mono<T> record(Mono<T> source) {
+            return source
+                    .doOnSuccess(value -> success.increment())
+                    .doOnError(this::failure);
+        }
+
+        private void failure(Throwable error) {
+            if (error instanceof ClientNotFound) {
+                clientNotFound.increment();
+            } else if (error instanceof InvalidCredentials) {
+                invalidCredentials.increment();
+            } else {
+                other.increment();
+            }
+        }
+
+        private static Counter counter(MeterRegistry meterRegistry, String operation, String outcome) {
+            return Counter.builder("auth.requests")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.auth.auth_microservice.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Returned once when a client is registered; the secret cannot be retrieved afterwards.
+ */
+@AllArgsConstructor
+@Getter
+public class ClientRegistration {
+    @JsonProperty("client_id")
+    private final String clientId;
+    @JsonProperty("client_secret")
+    private final String clientSecret;
+    private final String name;
+    private final List<String> scopes;
+}
@@ -0,0 +1,19 @@
+package com.auth.auth_microservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientRegistrationRequest {
+    @NotBlank
+    private String name;
+    @NotEmpty
+    private List<String> scopes;
+}
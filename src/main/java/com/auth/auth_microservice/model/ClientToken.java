@@ -0,0 +1,22 @@
+package com.auth.auth_microservice.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Access token response of the client-credentials grant, in the shape of RFC 6749 section 5.1.
+ * No refresh token is issued; clients simply ask again.
+ */
+@AllArgsConstructor
+@Getter
+public class ClientToken {
+    @JsonProperty("access_token")
+    private final String accessToken;
+    @JsonProperty("token_type")
+    private final String tokenType;
+    /** Lifetime in seconds. */
+    @JsonProperty("expires_in")
+    private final long expiresIn;
+    private final String scope;
+}
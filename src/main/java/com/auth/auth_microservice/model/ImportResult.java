@@ -0,0 +1,35 @@
+package com.auth.auth_microservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class ImportResult {
+    private final String username;
+    private final Status status;
+    private final String message;
+
+    public static ImportResult created(String username) {
+        return new ImportResult(username, Status.CREATED, null);
+    }
+
+    public static ImportResult duplicate(String username) {
+        return new ImportResult(username, Status.DUPLICATE, "User already exist.");
+    }
+
+    public static ImportResult invalid(String username, String message) {
+        return new ImportResult(username, Status.INVALID, message);
+    }
+
+    public static ImportResult failed(String username, String message) {
+        return new ImportResult(username, Status.FAILED, message);
+    }
+
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        INVALID,
+        FAILED
+    }
+}
@@ -0,0 +1,18 @@
+package com.auth.auth_microservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Either a single {@code token} or a batch of {@code tokens}, answered in the same shape.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IntrospectionRequest {
+    private String token;
+    private List<String> tokens;
+}
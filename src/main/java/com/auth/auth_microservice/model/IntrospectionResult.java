@@ -0,0 +1,34 @@
+package com.auth.auth_microservice.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Introspection response in the shape of RFC 7662: inactive tokens carry only {@code active=false},
+ * without saying why.
+ */
+@AllArgsConstructor
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IntrospectionResult {
+    private static final IntrospectionResult INACTIVE = new IntrospectionResult(false, null, null, null);
+
+    private final boolean active;
+    @JsonProperty("sub")
+    private final String subject;
+    /** Expiration in seconds since the epoch. */
+    @JsonProperty("exp")
+    private final Long expiresAt;
+    @JsonProperty("jti")
+    private final String id;
+
+    public static IntrospectionResult active(String subject, Long expiresAt, String id) {
+        return new IntrospectionResult(true, subject, expiresAt, id);
+    }
+
+    public static IntrospectionResult inactive() {
+        return INACTIVE;
+    }
+}
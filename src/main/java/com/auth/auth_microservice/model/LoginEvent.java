@@ -0,0 +1,34 @@
+package com.auth.auth_microservice.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * One login attempt, kept in {@code login_events} until {@code expiresAt} for the audit trail.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@Document(collection = "login_events")
+public class LoginEvent {
+    @Id
+    private String id;
+    private String username;
+    private Outcome outcome;
+    private String address;
+    private Instant at;
+    private Instant expiresAt;
+
+    public enum Outcome {
+        SUCCESS,
+        INVALID_CREDENTIALS,
+        CLIENT_NOT_FOUND,
+        THROTTLED,
+        ERROR
+    }
+}
@@ -0,0 +1,23 @@
+package com.auth.auth_microservice.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@Document(collection = "refresh_tokens")
+public class RefreshToken {
+    /** SHA-256 of the opaque token handed to the client; the token itself is never stored. */
+    @Id
+    private String id;
+    private String username;
+    @Indexed(expireAfterSeconds = 0)
+    private Instant expiresAt;
+}
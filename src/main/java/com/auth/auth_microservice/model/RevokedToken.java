@@ -0,0 +1,24 @@
+package com.auth.auth_microservice.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@Document(collection = "revoked_tokens")
+public class RevokedToken {
+    /** The {@code jti} of the revoked access token. */
+    @Id
+    private String id;
+    @Indexed(expireAfterSeconds = 0)
+    private Instant expiresAt;
+    @Indexed
+    private Instant revokedAt;
+}
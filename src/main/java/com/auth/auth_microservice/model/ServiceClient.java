@@ -0,0 +1,32 @@
+package com.auth.auth_microservice.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A machine caller authenticating with the client-credentials grant instead of a user password.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@Document(collection = "service_clients")
+public class ServiceClient {
+    /** The {@code client_id}. */
+    @Id
+    private String id;
+    private String name;
+    /** Keyed hash of the secret, see {@code ClientSecretHasher}; the secret itself is never stored. */
+    private String secretHash;
+    private List<String> scopes;
+    private boolean enabled;
+    /** Set on every change so instances can pick up new and disabled clients incrementally. */
+    @Indexed
+    private Instant updatedAt;
+}
@@ -0,0 +1,11 @@
+package com.auth.auth_microservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class TokenPair {
+    private final String token;
+    private final String refreshToken;
+}
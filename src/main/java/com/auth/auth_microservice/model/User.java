@@ -3,10 +3,12 @@ package com.auth.auth_microservice.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
 import java.time.LocalDate;
 
 @AllArgsConstructor
@@ -20,12 +22,20 @@ public class User {
     private String id;
     @NotNull
     @NotBlank
+    @Indexed(unique = true)
     private String username;
     @NotNull
     @NotBlank
     private String password;
     @NotNull
+    @Indexed(unique = true)
     private String email;
     @NotNull
     private LocalDate dateBorn;
+    /**
+     * Space-separated role names, see {@code Authorities}. A string rather than an array keeps the
+     * credentials index covering; {@code null} means the default roles.
+     */
+    @Pattern(regexp = "\\s*[A-Za-z0-9_]+( +[A-Za-z0-9_]+)*\\s*")
+    private String roles;
 }
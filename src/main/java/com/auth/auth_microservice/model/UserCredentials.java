@@ -0,0 +1,14 @@
+package com.auth.auth_microservice.model;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class UserCredentials {
+    private String username;
+    private String password;
+    private String roles;
+}
@@ -0,0 +1,18 @@
+package com.auth.auth_microservice.model;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class UserView {
+    private String id;
+    private String username;
+    private String email;
+    private LocalDate dateBorn;
+    private String roles;
+}
@@ -0,0 +1,72 @@
+package com.auth.auth_microservice.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Consistent hash ring with virtual nodes. Points are derived from node names, not positions, so
+ * adding a node only moves the keys the new node takes over, about {@code 1/n} of them. Lookups are
+ * a binary search over a sorted {@code long[]}.
+ */
+public class ConsistentHashRing<T> {
+    private final long[] points;
+    private final List<T> owners;
+
+    public ConsistentHashRing(List<T> nodes, Function<T, String> name, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("A hash ring needs at least one node");
+        }
+        List<Point<T>> ring = new ArrayList<>(nodes.size() * virtualNodes);
+        for (T node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.add(new Point<>(hash(name.apply(node) + "#" + i), node));
+            }
+        }
+        ring.sort(Comparator.comparingLong(point -> point.hash));
+        this.points = new long[ring.size()];
+        this.owners = new ArrayList<>(ring.size());
+        for (int i = 0; i < ring.size(); i++) {
+            points[i] = ring.get(i).hash;
+            owners.add(ring.get(i).node);
+        }
+    }
+
+    /**
+     * @return the node owning the first point at or after the hash of {@code key}
+     */
+    public T route(String key) {
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners.get(index == points.length ? 0 : index);
+    }
+
+    /**
+     * FNV-1a over the UTF-16 code units, finished with the SplitMix64 mixer so that keys sharing a
+     * prefix still spread over the whole ring.
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+
+    private static final class Point<T> {
+        private final long hash;
+        private final T node;
+
+        private Point(long hash, T node) {
+            this.hash = hash;
+            this.node = node;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.auth.auth_microservice.repository;
+
+import com.auth.auth_microservice.config.MongoResilienceProperties;
+import com.auth.auth_microservice.exceptions.ServiceUnavailable;
+import com.mongodb.MongoExecutionTimeoutException;
+import com.mongodb.MongoSocketException;
+import com.mongodb.MongoTimeoutException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Guards every MongoDB call with a per-operation timeout, bulkhead on concurrent calls and circuit
+ * breaker, keyed by the operation name, so a backlog of audit writes or a failing bulk import cannot
+ * trip the breaker or exhaust the permits of login lookups. While the database is slow or down, callers fail fast
+ * with {@link ServiceUnavailable} and a retry hint instead of queueing; the open circuit lets a few
+ * probe calls through after {@code wait-duration-in-open-state} and closes again once they succeed.
+ * Only timeouts and connectivity errors count as failures, never business errors such as duplicate keys.
+ */
+public class MongoResilience {
+    private static final Duration BUSY_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final MongoResilienceProperties properties;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final Bulkhead streamBulkhead;
+    private final ConcurrentMap<String, Guard> guards = new ConcurrentHashMap<>();
+
+    public MongoResilience(MongoResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        MongoResilienceProperties.CircuitBreaker circuitBreakerProperties = properties.getCircuitBreaker();
+        this.circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(circuitBreakerProperties.getFailureRateThreshold())
+                .slowCallDurationThreshold(circuitBreakerProperties.getSlowCallDuration())
+                .slowCallRateThreshold(circuitBreakerProperties.getSlowCallRateThreshold())
+                .slidingWindowSize(circuitBreakerProperties.getSlidingWindowSize())
+                .minimumNumberOfCalls(circuitBreakerProperties.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(circuitBreakerProperties.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(circuitBreakerProperties.getPermittedCallsInHalfOpenState())
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .recordException(MongoResilience::isDatabaseFailure)
+                .ignoreExceptions(BulkheadFullException.class)
+                .build());
+        this.bulkheads = BulkheadRegistry.ofDefaults();
+        this.streamBulkhead = bulkheads.bulkhead("mongo-streams",
+                bulkheadConfig(properties.getBulkhead().getMaxConcurrentStreams()));
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+    }
+
+    /**
+     * Guards a single call; {@code operation} selects the circuit breaker and bulkhead, and the
+     * timeout from {@code auth.mongo.resilience.timeouts}.
+     */
+    public <T> Mono<T> mono(String operation, Mono<T> call) {
+        Guard guard = guard(operation);
+        return call
+                .transformDeferred(BulkheadOperator.of(guard.bulkhead))
+                .timeout(properties.timeout(operation))
+                .transformDeferred(CircuitBreakerOperator.of(guard.circuitBreaker))
+                .onErrorMap(this::isRejection, this::unavailable);
+    }
+
+    public <T> Flux<T> flux(String operation, Flux<T> call) {
+        Guard guard = guard(operation);
+        return call
+                .transformDeferred(BulkheadOperator.of(guard.bulkhead))
+                .timeout(properties.timeout(operation))
+                .transformDeferred(CircuitBreakerOperator.of(guard.circuitBreaker))
+                .onErrorMap(this::isRejection, this::unavailable);
+    }
+
+    /**
+     * For long-running reads that the client drains at its own pace. These hold a permit of the
+     * smaller stream bulkhead so they cannot starve short operations, the timeout only covers the
+     * first element, and their outcome reaches the circuit breaker without their duration, which
+     * says nothing about the health of the database.
+     */
+    public <T> Flux<T> stream(String operation, Flux<T> call) {
+        CircuitBreaker circuitBreaker = guard(operation).circuitBreaker;
+        return Flux.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                return Flux.error(CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+            }
+            long start = System.nanoTime();
+            return call
+                    .transformDeferred(BulkheadOperator.of(streamBulkhead))
+                    .timeout(Mono.delay(properties.timeout(operation)), element -> Mono.never())
+                    .doOnError(exception -> circuitBreaker.onError(System.nanoTime() - start,
+                            TimeUnit.NANOSECONDS, exception))
+                    .doOnComplete(() -> circuitBreaker.onSuccess(0, TimeUnit.NANOSECONDS))
+                    .doOnCancel(circuitBreaker::releasePermission);
+        }).onErrorMap(this::isRejection, this::unavailable);
+    }
+
+    public CircuitBreaker.State getState(String operation) {
+        return guard(operation).circuitBreaker.getState();
+    }
+
+    private Guard guard(String operation) {
+        Guard guard = guards.get(operation);
+        return guard != null ? guard : guards.computeIfAbsent(operation, name -> new Guard(
+                circuitBreakers.circuitBreaker("mongo-" + name),
+                bulkheads.bulkhead("mongo-" + name, bulkheadConfig(properties.maxConcurrentCalls(name)))));
+    }
+
+    private boolean isRejection(Throwable exception) {
+        return exception instanceof CallNotPermittedException
+                || exception instanceof BulkheadFullException
+                || exception instanceof TimeoutException;
+    }
+
+    private Throwable unavailable(Throwable exception) {
+        if (exception instanceof CallNotPermittedException) {
+            return new ServiceUnavailable("The database is unavailable, try again later",
+                    properties.getCircuitBreaker().getWaitDurationInOpenState());
+        }
+        if (exception instanceof BulkheadFullException) {
+            return new ServiceUnavailable("The database is busy, try again later", BUSY_RETRY_AFTER);
+        }
+        return new ServiceUnavailable("The database did not answer in time, try again later", BUSY_RETRY_AFTER);
+    }
+
+    private static boolean isDatabaseFailure(Throwable exception) {
+        return exception instanceof TimeoutException
+                || exception instanceof DataAccessResourceFailureException
+                || exception instanceof TransientDataAccessException
+                || exception instanceof MongoSocketException
+                || exception instanceof MongoTimeoutException
+                || exception instanceof MongoExecutionTimeoutException;
+    }
+
+    private static BulkheadConfig bulkheadConfig(int maxConcurrentCalls) {
+        return BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build();
+    }
+
+    private static final class Guard {
+        private final CircuitBreaker circuitBreaker;
+        private final Bulkhead bulkhead;
+
+        private Guard(CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+            this.circuitBreaker = circuitBreaker;
+            this.bulkhead = bulkhead;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.auth.auth_microservice.repository;
+
+import com.auth.auth_microservice.model.ImportResult;
+import com.auth.auth_microservice.model.User;
+import com.auth.auth_microservice.model.UserCredentials;
+import com.auth.auth_microservice.model.UserView;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Routes single-user operations to the partition owning the username and answers listings by
+ * scatter-gather: every partition returns its own id-ordered page and the pages are merged by id,
+ * so the result is the same as from one collection.
+ * <p>
+ * With {@code auth.users.partitioning.fallback-reads=true}, a username missing from its owner is
+ * looked up in the other partitions too; enable it while {@link UserRebalancer} moves users.
+ */
+@Component
+public class PartitionedUserStore implements UserStore {
+    private static final Comparator<UserView> BY_ID = Comparator.comparing(UserView::getId);
+
+    private final UserPartitions partitions;
+    private final boolean fallbackReads;
+
+    public PartitionedUserStore(UserPartitions partitions,
+                                @Value("${auth.users.partitioning.fallback-reads:false}") boolean fallbackReads) {
+        this.partitions = partitions;
+        this.fallbackReads = fallbackReads;
+    }
+
+    @Override
+    public Mono<UserCredentials> findCredentialsByUsername(String username) {
+        UserPartition owner = partitions.route(username);
+        Mono<UserCredentials> credentials = owner.getUserRepository().findCredentialsByUsername(username);
+        if (!fallbackReads || partitions.all().size() == 1) {
+            return credentials;
+        }
+        return credentials.switchIfEmpty(Flux.fromIterable(partitions.all())
+                .filter(partition -> partition != owner)
+                .concatMap(partition -> partition.getUserRepository().findCredentialsByUsername(username))
+                .next());
+    }
+
+    @Override
+    public Mono<User> insert(User user) {
+        return partitions.route(user.getUsername()).getUserRepository().insert(user);
+    }
+
+    @Override
+    public Mono<Boolean> updatePassword(String username, String currentPassword, String newPassword) {
+        return partitions.route(username).getUserRepository().updatePassword(username, currentPassword, newPassword);
+    }
+
+    @Override
+    public Flux<ImportResult> insertAllUnordered(List<User> users) {
+        if (partitions.all().size() == 1) {
+            return partitions.all().get(0).getUserRepository().insertAllUnordered(users);
+        }
+        Map<UserPartition, List<User>> byPartition = new LinkedHashMap<>();
+        for (User user : users) {
+            byPartition.computeIfAbsent(partitions.route(user.getUsername()), partition -> new ArrayList<>()).add(user);
+        }
+        return Flux.fromIterable(byPartition.entrySet())
+                .flatMap(entry -> entry.getKey().getUserRepository().insertAllUnordered(entry.getValue()),
+                        byPartition.size());
+    }
+
+    @Override
+    public Flux<UserView> findAfter(String id, int limit) {
+        return merge(repository -> repository.findByIdGreaterThanOrderByIdAsc(id, PageRequest.of(0, limit)))
+                .take(limit);
+    }
+
+    @Override
+    public Flux<UserView> findAllAfter(String id) {
+        return merge(repository -> repository.findByIdGreaterThanOrderByIdAsc(id));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Flux<UserView> merge(Function<UserRepository, Flux<UserView>> query) {
+        List<UserPartition> all = partitions.all();
+        if (all.size() == 1) {
+            return query.apply(all.get(0).getUserRepository());
+        }
+        Publisher<UserView>[] sources = new Publisher[all.size()];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = query.apply(all.get(i).getUserRepository());
+        }
+        return Flux.mergeComparing(BY_ID, sources);
+    }
+}
@@ -0,0 +1,89 @@
+package com.auth.auth_microservice.repository;
+
+import com.auth.auth_microservice.metrics.AuthMetrics;
+import com.auth.auth_microservice.model.UserCredentials;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Bounded cache of username to credentials in front of {@link UserStore}. Unknown usernames
+ * are cached too, for a shorter time, so repeated lookups of accounts that do not exist skip Mongo.
+ * Concurrent misses for the same username share one query. Entries are dropped when the user is
+ * registered or the password hash changes on this instance; other instances catch up within the TTL.
+ */
+@Component
+public class UserCredentialsCache {
+    private final UserStore userStore;
+    private final AuthMetrics authMetrics;
+    private final MongoResilience mongoResilience;
+    private final AsyncCache<String, Optional<UserCredentials>> cache;
+
+    public UserCredentialsCache(UserStore userStore,
+                                AuthMetrics authMetrics,
+                                MongoResilience mongoResilience,
+                                @Value("${auth.user-cache.max-size:10000}") long maxSize,
+                                @Value("${auth.user-cache.ttl:5m}") Duration ttl,
+                                @Value("${auth.user-cache.negative-ttl:10s}") Duration negativeTtl) {
+        this.userStore = userStore;
+        this.authMetrics = authMetrics;
+        this.mongoResilience = mongoResilience;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new PositiveOrNegative(ttl.toNanos(), negativeTtl.toNanos()))
+                .recordStats()
+                .buildAsync();
+        authMetrics.monitor(cache.synchronous(), "auth.user.cache");
+    }
+
+    public Mono<UserCredentials> findByUsername(String username) {
+        return Mono.defer(() -> Mono.fromFuture(cache.get(username, (key, executor) -> load(key))))
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    public void invalidate(String username) {
+        cache.synchronous().invalidate(username);
+    }
+
+    private CompletableFuture<Optional<UserCredentials>> load(String username) {
+        return authMetrics.timeMongoLookup(mongoResilience.mono("lookup",
+                        Mono.defer(() -> userStore.findCredentialsByUsername(username))))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .toFuture();
+    }
+
+    private static class PositiveOrNegative implements Expiry<String, Optional<UserCredentials>> {
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        private PositiveOrNegative(long ttlNanos, long negativeTtlNanos) {
+            this.ttlNanos = ttlNanos;
+            this.negativeTtlNanos = negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String username, Optional<UserCredentials> credentials, long currentTime) {
+            return credentials.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String username, Optional<UserCredentials> credentials, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(username, credentials, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String username, Optional<UserCredentials> credentials, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
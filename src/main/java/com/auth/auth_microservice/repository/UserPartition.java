@@ -0,0 +1,73 @@
+package com.auth.auth_microservice.repository;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+
+/**
+ * One database holding a share of the users, with its own {@link UserRepository}.
+ */
+public class UserPartition implements AutoCloseable {
+    private final String name;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final UserRepository userRepository;
+    private final MongoClient ownedClient;
+
+    public UserPartition(String name, ReactiveMongoTemplate mongoTemplate, UserRepository userRepository) {
+        this(name, mongoTemplate, userRepository, null);
+    }
+
+    private UserPartition(String name, ReactiveMongoTemplate mongoTemplate, UserRepository userRepository,
+                          MongoClient ownedClient) {
+        this.name = name;
+        this.mongoTemplate = mongoTemplate;
+        this.userRepository = userRepository;
+        this.ownedClient = ownedClient;
+    }
+
+    /**
+     * Connects to the database named in {@code uri}, mapping documents with {@code converter} so
+     * every partition stores users the same way as the primary database.
+     */
+    public static UserPartition connect(String name, String uri, MongoConverter converter) {
+        ConnectionString connectionString = new ConnectionString(uri);
+        if (connectionString.getDatabase() == null) {
+            throw new IllegalArgumentException("The URI of partition " + name + " does not name a database");
+        }
+        MongoClient client = MongoClients.create(connectionString);
+        ReactiveMongoTemplate mongoTemplate = new ReactiveMongoTemplate(
+                new SimpleReactiveMongoDatabaseFactory(client, connectionString.getDatabase()), converter);
+        UserRepository userRepository = new ReactiveMongoRepositoryFactory(mongoTemplate)
+                .getRepository(UserRepository.class, RepositoryFragments.just(new UserRepositoryCustomImpl(mongoTemplate)));
+        return new UserPartition(name, mongoTemplate, userRepository, client);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ReactiveMongoTemplate getMongoTemplate() {
+        return mongoTemplate;
+    }
+
+    public UserRepository getUserRepository() {
+        return userRepository;
+    }
+
+    @Override
+    public void close() {
+        if (ownedClient != null) {
+            ownedClient.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
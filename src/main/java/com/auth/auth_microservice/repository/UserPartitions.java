@@ -0,0 +1,37 @@
+package com.auth.auth_microservice.repository;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The user partitions and the {@link ConsistentHashRing} assigning each username to one of them.
+ */
+public class UserPartitions implements AutoCloseable {
+    private final List<UserPartition> partitions;
+    private final ConsistentHashRing<UserPartition> ring;
+
+    public UserPartitions(List<UserPartition> partitions, int virtualNodes) {
+        Set<String> names = new HashSet<>();
+        for (UserPartition partition : partitions) {
+            if (!names.add(partition.getName())) {
+                throw new IllegalArgumentException("Duplicate user partition " + partition.getName());
+            }
+        }
+        this.partitions = List.copyOf(partitions);
+        this.ring = new ConsistentHashRing<>(this.partitions, UserPartition::getName, virtualNodes);
+    }
+
+    public UserPartition route(String username) {
+        return partitions.size() == 1 ? partitions.get(0) : ring.route(username);
+    }
+
+    public List<UserPartition> all() {
+        return partitions;
+    }
+
+    @Override
+    public void close() {
+        partitions.forEach(UserPartition::close);
+    }
+}
@@ -0,0 +1,108 @@
+package com.auth.auth_microservice.repository;
+
+import com.auth.auth_microservice.model.ImportResult;
+import com.auth.auth_microservice.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Moves users that are stored on a partition other than their owner, after partitions were added
+ * or removed. Users are copied to the owner first and deleted from the old partition only once
+ * the copy exists, so an interrupted run loses nothing and can simply be repeated. Runs at startup
+ * with {@code auth.users.partitioning.rebalance-on-startup=true}.
+ */
+@Slf4j
+@Component
+public class UserRebalancer implements ApplicationRunner {
+    private final UserPartitions partitions;
+    private final boolean rebalanceOnStartup;
+    private final int batchSize;
+
+    public UserRebalancer(UserPartitions partitions,
+                          @Value("${auth.users.partitioning.rebalance-on-startup:false}") boolean rebalanceOnStartup,
+                          @Value("${auth.users.partitioning.rebalance-batch-size:500}") int batchSize) {
+        this.partitions = partitions;
+        this.rebalanceOnStartup = rebalanceOnStartup;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (rebalanceOnStartup) {
+            Long moved = rebalance().block();
+            log.info("Moved {} users to their owning partitions", moved);
+        }
+    }
+
+    /**
+     * @return the number of users moved
+     */
+    public Mono<Long> rebalance() {
+        return Flux.fromIterable(partitions.all())
+                .concatMap(source -> source.getMongoTemplate().findAll(User.class)
+                        .filter(user -> partitions.route(user.getUsername()) != source)
+                        .buffer(batchSize)
+                        .concatMap(users -> move(source, users)))
+                .reduce(0L, Long::sum);
+    }
+
+    private Mono<Long> move(UserPartition source, List<User> users) {
+        Map<UserPartition, List<User>> byOwner = new LinkedHashMap<>();
+        for (User user : users) {
+            byOwner.computeIfAbsent(partitions.route(user.getUsername()), owner -> new ArrayList<>()).add(user);
+        }
+        return Flux.fromIterable(byOwner.entrySet())
+                .concatMap(entry -> copied(entry.getKey(), entry.getValue()))
+                .collectList()
+                .filter(ids -> !ids.isEmpty())
+                .flatMap(ids -> source.getMongoTemplate()
+                        .remove(query(where("_id").in(ids)), User.class)
+                        .map(result -> result.getDeletedCount()))
+                .defaultIfEmpty(0L);
+    }
+
+    /**
+     * Copies the users to their owner and emits the ids now present there. A duplicate only counts
+     * as copied when the owner holds the same user, as after an interrupted run; a different user
+     * with the same username or email is left alone and reported.
+     */
+    private Flux<String> copied(UserPartition owner, List<User> users) {
+        Map<String, User> byUsername = users.stream()
+                .collect(Collectors.toMap(User::getUsername, Function.identity()));
+        return owner.getUserRepository().insertAllUnordered(users)
+                .concatMap(result -> {
+                    User user = byUsername.get(result.getUsername());
+                    if (result.getStatus() == ImportResult.Status.CREATED) {
+                        return Mono.just(user.getId());
+                    }
+                    if (result.getStatus() == ImportResult.Status.DUPLICATE) {
+                        return owner.getUserRepository().existsById(user.getId())
+                                .flatMap(exists -> {
+                                    if (!exists) {
+                                        log.warn("Not moving user {} to partition {}: a different user conflicts",
+                                                user.getId(), owner.getName());
+                                    }
+                                    return exists ? Mono.just(user.getId()) : Mono.<String>empty();
+                                });
+                    }
+                    log.warn("Could not move user {} to partition {}: {}", user.getId(), owner.getName(),
+                            result.getMessage());
+                    return Mono.empty();
+                });
+    }
+}
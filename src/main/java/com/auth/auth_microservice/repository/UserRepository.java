@@ -1,9 +1,23 @@
 package com.auth.auth_microservice.repository;
 
 import com.auth.auth_microservice.model.User;
+import com.auth.auth_microservice.model.UserCredentials;
+import com.auth.auth_microservice.model.UserView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-public interface UserRepository extends ReactiveMongoRepository<User, String> {
+public interface UserRepository extends ReactiveMongoRepository<User, String>, UserRepositoryCustom {
     Mono<User> findByUsername(String username);
+
+    Mono<Boolean> existsByUsername(String username);
+
+    @Query(value = "{ 'username': ?0 }", fields = "{ '_id': 0, 'username': 1, 'password': 1, 'roles': 1 }")
+    Mono<UserCredentials> findCredentialsByUsername(String username);
+
+    Flux<UserView> findByIdGreaterThanOrderByIdAsc(String id, Pageable pageable);
+
+    Flux<UserView> findByIdGreaterThanOrderByIdAsc(String id);
 }
@@ -0,0 +1,24 @@
+package com.auth.auth_microservice.repository;
+
+import com.auth.auth_microservice.model.ImportResult;
+import com.auth.auth_microservice.model.User;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface UserRepositoryCustom {
+    /**
+     * Replaces the password hash only if it is still {@code currentPassword}, so a concurrent
+     * password change is never overwritten.
+     *
+     * @return whether the hash was replaced
+     */
+    Mono<Boolean> updatePassword(String username, String currentPassword, String newPassword);
+
+    /**
+     * Inserts the users with one unordered {@code insertMany}, so a duplicate only fails its own
+     * record. Emits one result per user, in the order given.
+     */
+    Flux<ImportResult> insertAllUnordered(List<User> users);
+}
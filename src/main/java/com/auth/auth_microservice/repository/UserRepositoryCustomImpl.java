@@ -0,0 +1,72 @@
+package com.auth.auth_microservice.repository;
+
+import com.auth.auth_microservice.model.ImportResult;
+import com.auth.auth_microservice.model.User;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    private static final InsertManyOptions UNORDERED = new InsertManyOptions().ordered(false);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public UserRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<Boolean> updatePassword(String username, String currentPassword, String newPassword) {
+        return mongoTemplate.updateFirst(
+                        query(where("username").is(username).and("password").is(currentPassword)),
+                        Update.update("password", newPassword),
+                        User.class)
+                .map(result -> result.getModifiedCount() > 0);
+    }
+
+    @Override
+    public Flux<ImportResult> insertAllUnordered(List<User> users) {
+        if (users.isEmpty()) {
+            return Flux.empty();
+        }
+        List<Document> documents = new ArrayList<>(users.size());
+        for (User user : users) {
+            Document document = new Document();
+            mongoTemplate.getConverter().write(user, document);
+            documents.add(document);
+        }
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(User.class))
+                .flatMap(collection -> Mono.from(collection.insertMany(documents, UNORDERED)))
+                .map(result -> Collections.<Integer, BulkWriteError>emptyMap())
+                .onErrorResume(MongoBulkWriteException.class, exception -> Mono.just(exception.getWriteErrors()
+                        .stream()
+                        .collect(Collectors.toMap(BulkWriteError::getIndex, Function.identity()))))
+                .flatMapMany(errors -> Flux.range(0, users.size())
+                        .map(index -> result(users.get(index).getUsername(), errors.get(index))));
+    }
+
+    private static ImportResult result(String username, BulkWriteError error) {
+        if (error == null) {
+            return ImportResult.created(username);
+        }
+        if (ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY) {
+            return ImportResult.duplicate(username);
+        }
+        return ImportResult.failed(username, error.getMessage());
+    }
+}
@@ -0,0 +1,41 @@
+package com.auth.auth_microservice.repository;
+
+import com.auth.auth_microservice.model.ImportResult;
+import com.auth.auth_microservice.model.User;
+import com.auth.auth_microservice.model.UserCredentials;
+import com.auth.auth_microservice.model.UserView;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * The user operations of the service, independent of how users are spread over databases.
+ */
+public interface UserStore {
+    Mono<UserCredentials> findCredentialsByUsername(String username);
+
+    Mono<User> insert(User user);
+
+    /**
+     * @see UserRepositoryCustom#updatePassword(String, String, String)
+     */
+    Mono<Boolean> updatePassword(String username, String currentPassword, String newPassword);
+
+    /**
+     * Emits one result per user. Results keep the given order among users of the same partition only.
+     *
+     * @see UserRepositoryCustom#insertAllUnordered(List)
+     */
+    Flux<ImportResult> insertAllUnordered(List<User> users);
+
+    /**
+     * @return up to {@code limit} users with an id greater than {@code id}, in id order
+     */
+    Flux<UserView> findAfter(String id, int limit);
+
+    /**
+     * @return all users with an id greater than {@code id}, in id order
+     */
+    Flux<UserView> findAllAfter(String id);
+}
@@ -0,0 +1,88 @@
+package com.auth.auth_microservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Roles and scopes travel as one space-separated string: in the {@code roles} field of users, and
+ * in the {@code roles} and {@code scope} token claims. Each distinct string is decoded once into an
+ * immutable authority list shared by every token carrying it, so authorizing a request needs neither
+ * I/O nor allocation.
+ */
+public final class Authorities {
+    public static final String USER = "USER";
+    public static final String ADMIN = "ADMIN";
+    /** Roles of users registered through the API and of users stored before roles existed. */
+    public static final String DEFAULT_ROLES = USER;
+
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final String SCOPE_PREFIX = "SCOPE_";
+    private static final Cache<String, List<GrantedAuthority>> ROLES = Caffeine.newBuilder()
+            .maximumSize(1024)
+            .build();
+    private static final Cache<String, List<GrantedAuthority>> SCOPES = Caffeine.newBuilder()
+            .maximumSize(1024)
+            .build();
+
+    private Authorities() {
+    }
+
+    /**
+     * @return the roles upper-cased, de-duplicated and sorted, so equal role sets share one string
+     * and one authority list; {@link #DEFAULT_ROLES} when there are none
+     */
+    public static String normalizeRoles(String roles) {
+        if (roles == null || roles.isBlank()) {
+            return DEFAULT_ROLES;
+        }
+        TreeSet<String> sorted = new TreeSet<>();
+        for (String role : roles.trim().split(" +")) {
+            sorted.add(role.toUpperCase());
+        }
+        return String.join(" ", sorted);
+    }
+
+    /**
+     * @param roles the {@code roles} claim, {@code null} for tokens issued before roles existed
+     */
+    public static List<GrantedAuthority> ofRoles(String roles) {
+        return ROLES.get(roles == null ? DEFAULT_ROLES : roles, key -> decode(ROLE_PREFIX, key));
+    }
+
+    public static List<GrantedAuthority> ofScopes(String scope) {
+        return SCOPES.get(scope, key -> decode(SCOPE_PREFIX, key));
+    }
+
+    /**
+     * @return whether the authentication carries {@code ROLE_<role>}, as opposed to a scope
+     */
+    public static boolean hasRole(Authentication authentication, String role) {
+        if (authentication == null) {
+            return false;
+        }
+        String authority = ROLE_PREFIX + role;
+        for (GrantedAuthority granted : authentication.getAuthorities()) {
+            if (authority.equals(granted.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<GrantedAuthority> decode(String prefix, String values) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        Arrays.stream(values.split(" "))
+                .filter(value -> !value.isEmpty())
+                .distinct()
+                .forEach(value -> authorities.add(new SimpleGrantedAuthority(prefix + value)));
+        return List.copyOf(authorities);
+    }
+}
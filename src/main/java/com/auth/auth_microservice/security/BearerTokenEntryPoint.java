@@ -0,0 +1,27 @@
+package com.auth.auth_microservice.security;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.server.ServerAuthenticationEntryPoint;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Answers anonymous requests to protected paths with 401, adding {@code error="invalid_token"}
+ * to the challenge when {@link JwtAuthenticationFilter} could not verify the bearer token.
+ */
+public class BearerTokenEntryPoint implements ServerAuthenticationEntryPoint {
+    private static final String BEARER = "Bearer";
+    private static final String INVALID_TOKEN = "Bearer error=\"invalid_token\"";
+
+    @Override
+    public Mono<Void> commence(ServerWebExchange exchange, AuthenticationException exception) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().set(HttpHeaders.WWW_AUTHENTICATE,
+                JwtAuthenticationFilter.hasInvalidToken(exchange) ? INVALID_TOKEN : BEARER);
+        return response.setComplete();
+    }
+}
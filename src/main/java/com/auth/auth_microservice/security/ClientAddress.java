@@ -0,0 +1,56 @@
+package com.auth.auth_microservice.security;
+
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.net.InetSocketAddress;
+
+/**
+ * The client address of a request, carried in the Reactor context so the service layer can read it
+ * without depending on the web exchange.
+ */
+public final class ClientAddress {
+    public static final String UNKNOWN = "unknown";
+    private static final String KEY = ClientAddress.class.getName();
+
+    private ClientAddress() {
+    }
+
+    /**
+     * @param header a header carrying the client address set by a trusted gateway, such as
+     *               {@code X-Forwarded-For}, or {@code null} to use the connection's remote address.
+     *               Only its last entry is used, which is the one the gateway appended; earlier
+     *               entries come from the client and can be forged.
+     */
+    public static String of(ServerHttpRequest request, String header) {
+        if (header != null && !header.isEmpty()) {
+            String forwarded = request.getHeaders().getFirst(header);
+            if (forwarded != null) {
+                String address = forwarded.substring(forwarded.lastIndexOf(',') + 1).trim();
+                if (!address.isEmpty()) {
+                    return address;
+                }
+            }
+        }
+        return of(request);
+    }
+
+    public static String of(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress == null) {
+            return UNKNOWN;
+        }
+        return remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress()
+                : remoteAddress.getHostString();
+    }
+
+    public static Context with(Context context, String address) {
+        return context.put(KEY, address);
+    }
+
+    public static Mono<String> current() {
+        return Mono.deferContextual(context -> Mono.just(context.getOrDefault(KEY, UNKNOWN)));
+    }
+}
@@ -0,0 +1,21 @@
+package com.auth.auth_microservice.security;
+
+import lombok.Value;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * The principal of requests authenticated with a client-credentials token, as opposed to the plain
+ * username of user tokens. Scopes are also granted as {@code SCOPE_} authorities.
+ */
+@Value
+public class ClientPrincipal implements Principal {
+    String clientId;
+    List<String> scopes;
+
+    @Override
+    public String getName() {
+        return clientId;
+    }
+}
@@ -0,0 +1,132 @@
+package com.auth.auth_microservice.security;
+
+import com.auth.auth_microservice.exceptions.InvalidCredentials;
+import com.auth.auth_microservice.exceptions.ServiceUnavailable;
+import com.auth.auth_microservice.model.ServiceClient;
+import com.auth.auth_microservice.repository.MongoResilience;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code service_clients} collection with an in-memory index of enabled clients. Every instance
+ * polls for clients changed since its last poll, so authenticating a client reads neither Mongo nor
+ * BCrypt. Once the first poll succeeded the index is trusted: an unknown {@code client_id} is
+ * rejected without a lookup, so {@code /auth/token} cannot be used to send reads to Mongo, and a
+ * client registered on another instance becomes usable here within {@code auth.clients.sync-period}.
+ * Before that, a client missing from the index is looked up and indexed.
+ */
+@Slf4j
+@Component
+public class ClientRegistry implements InitializingBean, DisposableBean {
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(5);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final MongoResilience mongoResilience;
+    private final ClientSecretHasher secretHasher;
+    private final Duration syncPeriod;
+    private final Map<String, ServiceClient> clients = new ConcurrentHashMap<>();
+    private volatile Instant lastSync = Instant.EPOCH;
+    private volatile boolean synced;
+    private Disposable synchronization;
+
+    public ClientRegistry(ReactiveMongoTemplate mongoTemplate,
+                          MongoResilience mongoResilience,
+                          ClientSecretHasher secretHasher,
+                          @Value("${auth.clients.sync-period:10s}") Duration syncPeriod) {
+        this.mongoTemplate = mongoTemplate;
+        this.mongoResilience = mongoResilience;
+        this.secretHasher = secretHasher;
+        this.syncPeriod = syncPeriod;
+    }
+
+    /**
+     * @return the enabled client, or an {@link InvalidCredentials} error when the id is unknown, the
+     * client is disabled or the secret does not match
+     */
+    public Mono<ServiceClient> authenticate(String clientId, String secret) {
+        return Mono.defer(() -> {
+            if (!secretHasher.isConfigured()) {
+                return Mono.error(new ServiceUnavailable("Client credentials are not configured"));
+            }
+            ServiceClient client = clients.get(clientId);
+            return (client != null ? Mono.just(client) : synced ? Mono.<ServiceClient>empty() : load(clientId))
+                    .filter(found -> secretHasher.matches(secret, found.getSecretHash()))
+                    .switchIfEmpty(Mono.error(new InvalidCredentials("The client credentials are invalid")));
+        });
+    }
+
+    public Mono<ServiceClient> register(ServiceClient client) {
+        return mongoResilience.mono("client", Mono.defer(() -> mongoTemplate.insert(client)))
+                .doOnNext(this::index);
+    }
+
+    /**
+     * @return whether the client existed; tokens already issued to it stay valid until they expire
+     */
+    public Mono<Boolean> disable(String clientId) {
+        Query query = Query.query(Criteria.where("_id").is(clientId));
+        return mongoResilience.mono("client", Mono.defer(() -> mongoTemplate.updateFirst(query,
+                        Update.update("enabled", false).set("updatedAt", Instant.now()), ServiceClient.class)))
+                .map(result -> result.getMatchedCount() > 0)
+                .doOnNext(found -> clients.remove(clientId));
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        synchronization = Flux.interval(Duration.ZERO, syncPeriod)
+                .onBackpressureDrop()
+                .concatMap(tick -> synchronize()
+                        .onErrorResume(exception -> {
+                            log.warn("Could not synchronize service clients: {}", exception.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @Override
+    public void destroy() {
+        if (synchronization != null) {
+            synchronization.dispose();
+        }
+    }
+
+    Mono<Void> synchronize() {
+        Instant startedAt = Instant.now();
+        Query query = Query.query(Criteria.where("updatedAt").gte(lastSync.minus(CLOCK_SKEW)));
+        return mongoTemplate.find(query, ServiceClient.class)
+                .doOnNext(this::index)
+                .then(Mono.fromRunnable(() -> {
+                    lastSync = startedAt;
+                    synced = true;
+                }));
+    }
+
+    private Mono<ServiceClient> load(String clientId) {
+        return mongoResilience.mono("client", Mono.defer(() -> mongoTemplate.findById(clientId, ServiceClient.class)))
+                .filter(ServiceClient::isEnabled)
+                .doOnNext(this::index);
+    }
+
+    private void index(ServiceClient client) {
+        if (client.isEnabled()) {
+            clients.put(client.getId(), client);
+        } else {
+            clients.remove(client.getId());
+        }
+    }
+}
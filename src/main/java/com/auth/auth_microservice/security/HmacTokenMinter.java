@@ -0,0 +1,280 @@
+package com.auth.auth_microservice.security;
+
+import io.jsonwebtoken.JwsHeader;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * Mints access tokens for an HMAC key without the {@code Jwts.builder()} pipeline. The header
+ * segment is encoded once, claims are written straight into per-thread buffers and signed with a
+ * per-thread {@link Mac}, so a token costs little more than its final {@code String}. The output is
+ * byte for byte what jjwt produces for the same {@code jti}, {@code sub}, {@code iat}, {@code exp}
+ * and optional extra string claim, set in that order.
+ */
+final class HmacTokenMinter {
+    private static final byte[] JTI = ascii("{\"jti\":\"");
+    private static final byte[] SUB = ascii("\",\"sub\":\"");
+    private static final byte[] IAT = ascii("\",\"iat\":");
+    private static final byte[] EXP = ascii(",\"exp\":");
+    private static final byte[] CLAIM = ascii(",\"");
+    private static final byte[] CLAIM_VALUE = ascii("\":\"");
+    private static final byte[] HEX = ascii("0123456789abcdef");
+    private static final byte[] ESCAPE_HEX = ascii("0123456789ABCDEF");
+    private static final byte[] BASE64URL = ascii("ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_");
+
+    private final JwtKey key;
+    private final byte[] headerSegment;
+    private final ThreadLocal<Buffers> buffers;
+
+    HmacTokenMinter(JwtKey key) {
+        if (!supports(key)) {
+            throw new IllegalArgumentException("Not an HMAC signing key: " + key.getKid());
+        }
+        this.key = key;
+        this.headerSegment = headerSegment(key);
+        this.buffers = ThreadLocal.withInitial(() -> new Buffers(key));
+    }
+
+    static boolean supports(JwtKey key) {
+        return key.getSigningKey() != null && key.getAlgorithm().isHmac();
+    }
+
+    JwtKey getKey() {
+        return key;
+    }
+
+    /**
+     * @return a token with a random UUID {@code jti}; times are rounded down to seconds like jjwt does
+     */
+    String mint(String subject, long issuedAtMillis, long expiresAtMillis) {
+        return mint(subject, null, null, issuedAtMillis, expiresAtMillis);
+    }
+
+    /**
+     * @param claim name of an extra string claim, or {@code null} for none
+     */
+    String mint(String subject, String claim, String value, long issuedAtMillis, long expiresAtMillis) {
+        return mint(null, subject, claim, value, issuedAtMillis / 1000, expiresAtMillis / 1000);
+    }
+
+    String mint(String id, String subject, String claim, String value, long issuedAtSeconds, long expiresAtSeconds) {
+        Buffers buffers = this.buffers.get();
+        Buffer claims = buffers.claims;
+        claims.length = 0;
+        claims.write(JTI);
+        if (id == null) {
+            buffers.writeRandomUuid(claims);
+        } else {
+            writeJsonString(claims, id);
+        }
+        claims.write(SUB);
+        writeJsonString(claims, subject);
+        claims.write(IAT);
+        claims.writeLong(issuedAtSeconds);
+        claims.write(EXP);
+        claims.writeLong(expiresAtSeconds);
+        if (claim != null) {
+            claims.write(CLAIM);
+            writeJsonString(claims, claim);
+            claims.write(CLAIM_VALUE);
+            writeJsonString(claims, value);
+            claims.write((byte) '"');
+        }
+        claims.write((byte) '}');
+
+        Buffer token = buffers.token;
+        token.length = 0;
+        token.write(headerSegment);
+        writeBase64Url(token, claims.bytes, 0, claims.length);
+        buffers.mac.update(token.bytes, 0, token.length);
+        try {
+            buffers.mac.doFinal(buffers.signature, 0);
+        } catch (ShortBufferException exception) {
+            throw new IllegalStateException(exception);
+        }
+        token.write((byte) '.');
+        writeBase64Url(token, buffers.signature, 0, buffers.signature.length);
+        return new String(token.bytes, 0, token.length, StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] headerSegment(JwtKey key) {
+        Buffer header = new Buffer(64);
+        header.write((byte) '{');
+        if (key.getKid() != null) {
+            header.write(ascii("\"" + JwsHeader.KEY_ID + "\":"));
+            header.write((byte) '"');
+            writeJsonString(header, key.getKid());
+            header.write(ascii("\","));
+        }
+        header.write(ascii("\"" + JwsHeader.ALGORITHM + "\":\"" + key.getAlgorithm().getValue() + "\"}"));
+        Buffer segment = new Buffer(128);
+        writeBase64Url(segment, header.bytes, 0, header.length);
+        segment.write((byte) '.');
+        return Arrays.copyOf(segment.bytes, segment.length);
+    }
+
+    /**
+     * Writes the content of a JSON string the way jjwt's Jackson serializer does: quotes,
+     * backslashes, control characters and surrogates escaped, everything else as UTF-8. Jackson 2.13
+     * escapes both halves of a surrogate pair rather than writing the 4-byte UTF-8 sequence, so a
+     * non-BMP character comes out as two escaped UTF-16 units.
+     */
+    private static void writeJsonString(Buffer buffer, String value) {
+        buffer.ensureCapacity(value.length() * 6);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                buffer.write((byte) '\\');
+                buffer.write((byte) c);
+            } else if (c < 0x20) {
+                writeControl(buffer, c);
+            } else if (c < 0x80) {
+                buffer.write((byte) c);
+            } else if (c < 0x800) {
+                buffer.write((byte) (0xc0 | (c >> 6)));
+                buffer.write((byte) (0x80 | (c & 0x3f)));
+            } else if (Character.isSurrogate(c)) {
+                writeUnicodeEscape(buffer, c);
+            } else {
+                buffer.write((byte) (0xe0 | (c >> 12)));
+                buffer.write((byte) (0x80 | ((c >> 6) & 0x3f)));
+                buffer.write((byte) (0x80 | (c & 0x3f)));
+            }
+        }
+    }
+
+    private static void writeControl(Buffer buffer, char c) {
+        byte shortEscape = c == '\b' ? (byte) 'b'
+                : c == '\t' ? (byte) 't'
+                : c == '\n' ? (byte) 'n'
+                : c == '\f' ? (byte) 'f'
+                : c == '\r' ? (byte) 'r'
+                : 0;
+        if (shortEscape == 0) {
+            writeUnicodeEscape(buffer, c);
+        } else {
+            buffer.write((byte) '\\');
+            buffer.write(shortEscape);
+        }
+    }
+
+    private static void writeUnicodeEscape(Buffer buffer, char c) {
+        buffer.write((byte) '\\');
+        buffer.write((byte) 'u');
+        for (int shift = 12; shift >= 0; shift -= 4) {
+            buffer.write(ESCAPE_HEX[(c >> shift) & 0xf]);
+        }
+    }
+
+    private static void writeBase64Url(Buffer buffer, byte[] source, int offset, int length) {
+        buffer.ensureCapacity((length * 4 + 2) / 3);
+        byte[] target = buffer.bytes;
+        int position = buffer.length;
+        int end = offset + length - length % 3;
+        for (int i = offset; i < end; i += 3) {
+            int bits = (source[i] & 0xff) << 16 | (source[i + 1] & 0xff) << 8 | (source[i + 2] & 0xff);
+            target[position++] = BASE64URL[bits >>> 18];
+            target[position++] = BASE64URL[(bits >>> 12) & 0x3f];
+            target[position++] = BASE64URL[(bits >>> 6) & 0x3f];
+            target[position++] = BASE64URL[bits & 0x3f];
+        }
+        int remaining = offset + length - end;
+        if (remaining == 1) {
+            int bits = source[end] & 0xff;
+            target[position++] = BASE64URL[bits >>> 2];
+            target[position++] = BASE64URL[(bits << 4) & 0x3f];
+        } else if (remaining == 2) {
+            int bits = (source[end] & 0xff) << 8 | (source[end + 1] & 0xff);
+            target[position++] = BASE64URL[bits >>> 10];
+            target[position++] = BASE64URL[(bits >>> 4) & 0x3f];
+            target[position++] = BASE64URL[(bits << 2) & 0x3f];
+        }
+        buffer.length = position;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static final class Buffers {
+        private final Mac mac;
+        private final byte[] signature;
+        private final SecureRandom random = new SecureRandom();
+        private final byte[] uuid = new byte[16];
+        private final Buffer claims = new Buffer(128);
+        private final Buffer token = new Buffer(256);
+
+        private Buffers(JwtKey key) {
+            try {
+                mac = Mac.getInstance(key.getAlgorithm().getJcaName());
+                mac.init(key.getSigningKey());
+            } catch (GeneralSecurityException exception) {
+                throw new IllegalStateException("Cannot sign with " + key.getAlgorithm(), exception);
+            }
+            signature = new byte[mac.getMacLength()];
+        }
+
+        /** Same format and randomness as {@link java.util.UUID#randomUUID()}, without the objects. */
+        private void writeRandomUuid(Buffer buffer) {
+            random.nextBytes(uuid);
+            uuid[6] = (byte) ((uuid[6] & 0x0f) | 0x40);
+            uuid[8] = (byte) ((uuid[8] & 0x3f) | 0x80);
+            buffer.ensureCapacity(36);
+            for (int i = 0; i < 16; i++) {
+                if (i == 4 || i == 6 || i == 8 || i == 10) {
+                    buffer.write((byte) '-');
+                }
+                buffer.write(HEX[(uuid[i] >> 4) & 0xf]);
+                buffer.write(HEX[uuid[i] & 0xf]);
+            }
+        }
+    }
+
+    private static final class Buffer {
+        private byte[] bytes;
+        private int length;
+
+        private Buffer(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        private void ensureCapacity(int additional) {
+            if (length + additional > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + additional));
+            }
+        }
+
+        private void write(byte value) {
+            ensureCapacity(1);
+            bytes[length++] = value;
+        }
+
+        private void write(byte[] values) {
+            ensureCapacity(values.length);
+            System.arraycopy(values, 0, bytes, length, values.length);
+            length += values.length;
+        }
+
+        private void writeLong(long value) {
+            if (value < 0) {
+                write((byte) '-');
+                value = -value;
+            }
+            ensureCapacity(19);
+            int digits = 1;
+            for (long rest = value / 10; rest > 0; rest /= 10) {
+                digits++;
+            }
+            for (int i = length + digits - 1; i >= length; i--) {
+                bytes[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            length += digits;
+        }
+    }
+}
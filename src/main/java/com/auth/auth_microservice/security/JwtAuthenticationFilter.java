@@ -2,25 +2,27 @@ package com.auth.auth_microservice.security;
 
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
-import java.util.Collections;
-
-
-@Component
+/**
+ * Authenticates requests carrying a valid bearer token. A token that cannot be verified leaves the
+ * request anonymous, so public paths such as {@code /auth/refresh} still work with a stale token;
+ * protected paths are answered 401 by {@link BearerTokenEntryPoint}. Not a bean, so that it runs
+ * only inside the security chain, where {@code SecurityConfig} adds it.
+ */
 public class JwtAuthenticationFilter implements WebFilter {
-    private final JwtUtil jwtUtil;
-    public JwtAuthenticationFilter(JwtUtil jwtUtil) {
-        this.jwtUtil = jwtUtil;
+    private static final String INVALID_TOKEN = JwtAuthenticationFilter.class.getName() + ".INVALID_TOKEN";
+
+    private final TokenVerifier tokenVerifier;
+    public JwtAuthenticationFilter(TokenVerifier tokenVerifier) {
+        this.tokenVerifier = tokenVerifier;
     }
 
 
@@ -29,20 +31,22 @@ public class JwtAuthenticationFilter implements WebFilter {
         ServerHttpRequest request = exchange.getRequest();
         String token = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
         if (token!=null && token.startsWith("Bearer ")) {
-            token = token.substring(7);
-            String username = jwtUtil.extractUsername(token);
+            VerifiedToken verifiedToken = tokenVerifier.verifyBearer(token);
 
-            if (username != null && !jwtUtil.isTokenExpired(token)){
-                Authentication auth = new UsernamePasswordAuthenticationToken(username,
-                        null, Collections.emptyList());
+            if (verifiedToken != null && verifiedToken.getSubject() != null){
+                Authentication auth = TokenAuthentication.of(verifiedToken);
                 SecurityContext context = SecurityContextHolder.createEmptyContext();
                 context.setAuthentication(auth);
                 return chain.filter(exchange)
                         .contextWrite(ReactiveSecurityContextHolder.withSecurityContext(Mono.just(context)));
 
             }
-
+            exchange.getAttributes().put(INVALID_TOKEN, Boolean.TRUE);
         }
         return chain.filter(exchange);
     }
+
+    static boolean hasInvalidToken(ServerWebExchange exchange) {
+        return exchange.getAttributes().containsKey(INVALID_TOKEN);
+    }
 }
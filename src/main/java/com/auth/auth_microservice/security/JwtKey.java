@@ -0,0 +1,34 @@
+package com.auth.auth_microservice.security;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import lombok.Value;
+
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Instant;
+
+/**
+ * A key of the {@link JwtKeyRing}. {@code signingKey} is {@code null} for keys kept only to verify
+ * tokens issued before a rotation, {@code kid} is {@code null} for the legacy shared HMAC secret.
+ */
+@Value
+public class JwtKey {
+    String kid;
+    SignatureAlgorithm algorithm;
+    Key signingKey;
+    Key verificationKey;
+    Instant notBefore;
+    Instant notAfter;
+
+    public boolean canSign(Instant now) {
+        return signingKey != null && isValid(now) && (notBefore == null || !notBefore.isAfter(now));
+    }
+
+    public boolean isValid(Instant now) {
+        return notAfter == null || notAfter.isAfter(now);
+    }
+
+    public boolean isPublic() {
+        return verificationKey instanceof PublicKey;
+    }
+}
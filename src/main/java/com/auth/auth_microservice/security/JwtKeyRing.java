@@ -0,0 +1,92 @@
+package com.auth.auth_microservice.security;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+import java.security.Key;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The keys tokens are signed and verified with. The signing key is the active key with the latest
+ * {@code notBefore}, so a rotation only needs the next key configured ahead of time; older keys keep
+ * verifying until their {@code notAfter}.
+ */
+public class JwtKeyRing {
+    private final List<JwtKey> keys;
+    private final Map<String, JwtKey> keysById = new HashMap<>();
+    private final JwtKey legacyKey;
+
+    public JwtKeyRing(List<JwtKey> keys) {
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("At least one JWT key is required");
+        }
+        this.keys = List.copyOf(keys);
+        JwtKey legacy = null;
+        for (JwtKey key : keys) {
+            if (key.getKid() == null) {
+                legacy = key;
+            } else {
+                keysById.put(key.getKid(), key);
+            }
+        }
+        this.legacyKey = legacy;
+    }
+
+    public static JwtKeyRing hmac(String secret) {
+        return new JwtKeyRing(List.of(legacyHmacKey(secret)));
+    }
+
+    public static JwtKey legacyHmacKey(String secret) {
+        Key key = Keys.hmacShaKeyFor(secret.getBytes());
+        return new JwtKey(null, SignatureAlgorithm.HS256, key, key, null, null);
+    }
+
+    public JwtKey signingKey(Instant now) {
+        return keys.stream()
+                .filter(key -> key.canSign(now))
+                .max(Comparator.comparing(key -> key.getNotBefore() == null ? Instant.MIN : key.getNotBefore()))
+                .orElseThrow(() -> new IllegalStateException("No JWT signing key is active"));
+    }
+
+    /**
+     * @return the first instant after {@code now} at which a key becomes or stops being valid, so
+     * {@link #signingKey(Instant)} may change; {@code null} when nothing is scheduled
+     */
+    public Instant nextChange(Instant now) {
+        Instant next = null;
+        for (JwtKey key : keys) {
+            for (Instant instant : new Instant[]{key.getNotBefore(), key.getNotAfter()}) {
+                if (instant != null && instant.isAfter(now) && (next == null || instant.isBefore(next))) {
+                    next = instant;
+                }
+            }
+        }
+        return next;
+    }
+
+    /**
+     * @return the key for the {@code kid} header, or {@code null} when it is unknown or expired
+     */
+    public JwtKey verificationKey(String kid, Instant now) {
+        JwtKey key = kid == null ? legacyKey : keysById.get(kid);
+        return key != null && key.isValid(now) ? key : null;
+    }
+
+    /**
+     * @return public keys that are, or will become, valid; the content of the JWKS document
+     */
+    public List<JwtKey> publishedKeys(Instant now) {
+        return keys.stream()
+                .filter(key -> key.getKid() != null && key.isPublic() && key.isValid(now))
+                .collect(Collectors.toList());
+    }
+
+    public List<JwtKey> getKeys() {
+        return keys;
+    }
+}
@@ -2,33 +2,135 @@ package com.auth.auth_microservice.security;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
+    private static final String SCOPE = "scope";
+    private static final String ROLES = "roles";
+
     public final Key key;
-    public JwtUtil(@Value("${jwt.secret}") String keyValue) {
-        key = Keys.hmacShaKeyFor(keyValue.getBytes());
+    private final JwtKeyRing keyRing;
+    private final JwtParser parser;
+    private final long accessTokenTtlMillis;
+    private volatile Signer signer;
+
+    public JwtUtil(String keyValue) {
+        this(JwtKeyRing.hmac(keyValue), Duration.ofMinutes(15));
+    }
+
+    @Autowired
+    public JwtUtil(JwtKeyRing keyRing,
+                   @Value("${jwt.access-token-ttl:15m}") Duration accessTokenTtl) {
+        this.keyRing = keyRing;
+        this.accessTokenTtlMillis = accessTokenTtl.toMillis();
+        key = keyRing.signingKey(Instant.now()).getSigningKey();
+        parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new KeyRingResolver())
+                .build();
     }
 
     public String generateToken(String username) {
-        long EXPIRATION_TIME = 1000 * 60 * 60 * 10;
-        return Jwts.builder()
-                .setSubject(username)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis()+ EXPIRATION_TIME))
-                .signWith(key, SignatureAlgorithm.HS256)
+        return generateToken(username, null, null);
+    }
+
+    /**
+     * A token for a user, carrying its roles in the {@code roles} claim in the space-separated form
+     * of {@link Authorities#normalizeRoles(String)}.
+     */
+    public String generateToken(String username, String roles) {
+        return generateToken(username, ROLES, roles);
+    }
+
+    /**
+     * A token for a service client, carrying its granted scopes space-separated in the
+     * {@code scope} claim.
+     */
+    public String generateClientToken(String clientId, String scope) {
+        return generateToken(clientId, SCOPE, scope);
+    }
+
+    public Duration getAccessTokenTtl() {
+        return Duration.ofMillis(accessTokenTtlMillis);
+    }
+
+    /**
+     * HMAC keys mint through {@link HmacTokenMinter}; other algorithms go through the jjwt builder.
+     */
+    private String generateToken(String subject, String claim, String value) {
+        long now = System.currentTimeMillis();
+        Signer current = signer(now);
+        if (current.minter != null) {
+            return current.minter.mint(subject, claim, value, now, now + accessTokenTtlMillis);
+        }
+        JwtKey signingKey = current.key;
+        JwtBuilder builder = Jwts.builder();
+        if (signingKey.getKid() != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, signingKey.getKid());
+        }
+        builder.setId(UUID.randomUUID().toString())
+                .setSubject(subject)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + accessTokenTtlMillis));
+        if (claim != null) {
+            builder.claim(claim, value);
+        }
+        return builder
+                .signWith(signingKey.getSigningKey(), signingKey.getAlgorithm())
                 .compact();
     }
 
+    /**
+     * The signing key only changes when a key of the ring becomes or stops being valid, so it is
+     * looked up again at that instant rather than on every token.
+     */
+    private Signer signer(long now) {
+        Signer current = signer;
+        if (current == null || now >= current.validUntil) {
+            Instant instant = Instant.ofEpochMilli(now);
+            JwtKey signingKey = keyRing.signingKey(instant);
+            Instant nextChange = keyRing.nextChange(instant);
+            HmacTokenMinter minter = current != null && current.key == signingKey
+                    ? current.minter
+                    : HmacTokenMinter.supports(signingKey) ? new HmacTokenMinter(signingKey) : null;
+            current = new Signer(signingKey, minter, nextChange == null ? Long.MAX_VALUE : nextChange.toEpochMilli());
+            signer = current;
+        }
+        return current;
+    }
+
+    /**
+     * Parses and verifies the token once. Throws {@link io.jsonwebtoken.JwtException} when the
+     * token is malformed, badly signed or expired.
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims = extractAllClaims(token);
+        Date expiration = claims.getExpiration();
+        Instant expiresAt = expiration == null ? null : expiration.toInstant();
+        String scope = claims.get(SCOPE, String.class);
+        if (scope != null) {
+            return new VerifiedToken(claims.getId(), claims.getSubject(), expiresAt,
+                    List.of(scope.split(" ")), Authorities.ofScopes(scope));
+        }
+        return new VerifiedToken(claims.getId(), claims.getSubject(), expiresAt,
+                null, Authorities.ofRoles(claims.get(ROLES, String.class)));
+    }
 
     public boolean validateToken(String token, String username) {
         return username.equals(extractUsername(token)) && !isTokenExpired(token);
@@ -44,10 +146,7 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
+        return parser.parseClaimsJws(token)
                 .getBody();
     }
 
@@ -59,4 +158,27 @@ public class JwtUtil {
             return true;
         }
     }
+
+    private static final class Signer {
+        private final JwtKey key;
+        private final HmacTokenMinter minter;
+        private final long validUntil;
+
+        private Signer(JwtKey key, HmacTokenMinter minter, long validUntil) {
+            this.key = key;
+            this.minter = minter;
+            this.validUntil = validUntil;
+        }
+    }
+
+    private class KeyRingResolver extends SigningKeyResolverAdapter {
+        @Override
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            JwtKey jwtKey = keyRing.verificationKey(header.getKeyId(), Instant.now());
+            if (jwtKey == null) {
+                throw new UnsupportedJwtException("Unknown signing key " + header.getKeyId());
+            }
+            return jwtKey.getVerificationKey();
+        }
+    }
 }
@@ -0,0 +1,151 @@
+package com.auth.auth_microservice.security;
+
+import com.auth.auth_microservice.exceptions.TooManyAttempts;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throttles login attempts per client address and per username with {@link TokenBucket}s, and
+ * locks a username out for a growing period after repeated invalid credentials. Idle state is
+ * evicted after the refill period, when a bucket would be full again anyway, and each cache is
+ * bounded so a spray of random usernames or addresses cannot grow the heap without limit.
+ */
+@Component
+public class LoginAttemptGuard {
+    private final Cache<String, TokenBucket> addressBuckets;
+    private final Cache<String, TokenBucket> usernameBuckets;
+    private final Cache<String, Attempts> attempts;
+    private final int addressCapacity;
+    private final Duration addressPeriod;
+    private final int usernameCapacity;
+    private final Duration usernamePeriod;
+    private final int lockoutThreshold;
+    private final Duration lockoutBase;
+    private final Duration lockoutMax;
+    private final Counter addressAllowed;
+    private final Counter addressRejected;
+    private final Counter usernameAllowed;
+    private final Counter usernameRejected;
+    private final Counter lockoutRejected;
+
+    public LoginAttemptGuard(@Value("${auth.rate-limit.address.capacity:20}") int addressCapacity,
+                             @Value("${auth.rate-limit.address.period:1m}") Duration addressPeriod,
+                             @Value("${auth.rate-limit.username.capacity:10}") int usernameCapacity,
+                             @Value("${auth.rate-limit.username.period:1m}") Duration usernamePeriod,
+                             @Value("${auth.lockout.threshold:5}") int lockoutThreshold,
+                             @Value("${auth.lockout.base-duration:30s}") Duration lockoutBase,
+                             @Value("${auth.lockout.max-duration:15m}") Duration lockoutMax,
+                             @Value("${auth.rate-limit.address.max-entries:100000}") long addressMaxEntries,
+                             @Value("${auth.rate-limit.username.max-entries:100000}") long usernameMaxEntries,
+                             @Value("${auth.lockout.max-entries:100000}") long lockoutMaxEntries,
+                             MeterRegistry meterRegistry) {
+        requirePositive("auth.rate-limit.address.capacity", addressCapacity);
+        requirePositive("auth.rate-limit.username.capacity", usernameCapacity);
+        requirePositive("auth.lockout.threshold", lockoutThreshold);
+        this.addressCapacity = addressCapacity;
+        this.addressPeriod = addressPeriod;
+        this.usernameCapacity = usernameCapacity;
+        this.usernamePeriod = usernamePeriod;
+        this.lockoutThreshold = lockoutThreshold;
+        this.lockoutBase = lockoutBase;
+        this.lockoutMax = lockoutMax;
+        this.addressAllowed = counter(meterRegistry, "address", "allowed");
+        this.addressRejected = counter(meterRegistry, "address", "rejected");
+        this.usernameAllowed = counter(meterRegistry, "username", "allowed");
+        this.usernameRejected = counter(meterRegistry, "username", "rejected");
+        this.lockoutRejected = counter(meterRegistry, "lockout", "rejected");
+        this.addressBuckets = Caffeine.newBuilder()
+                .maximumSize(addressMaxEntries)
+                .expireAfterAccess(addressPeriod)
+                .build();
+        this.usernameBuckets = Caffeine.newBuilder()
+                .maximumSize(usernameMaxEntries)
+                .expireAfterAccess(usernamePeriod)
+                .build();
+        this.attempts = Caffeine.newBuilder()
+                .maximumSize(lockoutMaxEntries)
+                .expireAfterAccess(lockoutMax)
+                .build();
+    }
+
+    /**
+     * @return {@link Duration#ZERO} when the address may attempt a login, otherwise how long to wait
+     */
+    public Duration admitAddress(String address) {
+        TokenBucket bucket = addressBuckets.get(address, key -> new TokenBucket(addressCapacity, addressPeriod));
+        return acquire(bucket, addressAllowed, addressRejected);
+    }
+
+    public Mono<Void> admitUsername(String username) {
+        return Mono.defer(() -> {
+            long now = System.nanoTime();
+            Attempts current = attempts.getIfPresent(username);
+            if (current != null && current.isLocked(lockoutThreshold, now)) {
+                lockoutRejected.increment();
+                return Mono.error(new TooManyAttempts("Too many failed attempts, try again later",
+                        Duration.ofNanos(current.lockedUntil - now)));
+            }
+            TokenBucket bucket = usernameBuckets.get(username, key -> new TokenBucket(usernameCapacity, usernamePeriod));
+            Duration retryAfter = acquire(bucket, usernameAllowed, usernameRejected);
+            if (!retryAfter.isZero()) {
+                return Mono.error(new TooManyAttempts("Too many login attempts, try again later", retryAfter));
+            }
+            return Mono.empty();
+        });
+    }
+
+    public void recordFailure(String username) {
+        Attempts current = attempts.get(username, key -> new Attempts());
+        int failures = current.failures.incrementAndGet();
+        if (failures >= lockoutThreshold) {
+            int exponent = Math.min(failures - lockoutThreshold, 20);
+            long lockNanos = Math.min(lockoutMax.toNanos(), lockoutBase.toNanos() << exponent);
+            current.lockedUntil = System.nanoTime() + lockNanos;
+        }
+    }
+
+    public void recordSuccess(String username) {
+        attempts.invalidate(username);
+    }
+
+    private static Duration acquire(TokenBucket bucket, Counter allowed, Counter rejected) {
+        long now = System.nanoTime();
+        if (bucket.tryAcquire(now)) {
+            allowed.increment();
+            return Duration.ZERO;
+        }
+        rejected.increment();
+        Duration retryAfter = bucket.retryAfter(now);
+        return retryAfter.isZero() ? Duration.ofNanos(1) : retryAfter;
+    }
+
+    private static void requirePositive(String property, int value) {
+        if (value < 1) {
+            throw new IllegalArgumentException(property + " must be at least 1, was " + value);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String scope, String result) {
+        return Counter.builder("auth.ratelimit")
+                .tag("scope", scope)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static final class Attempts {
+        private final AtomicInteger failures = new AtomicInteger();
+        private volatile long lockedUntil;
+
+        private boolean isLocked(int threshold, long now) {
+            return failures.get() >= threshold && lockedUntil - now > 0;
+        }
+    }
+}
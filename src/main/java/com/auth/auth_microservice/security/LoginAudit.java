@@ -0,0 +1,207 @@
+package com.auth.auth_microservice.security;
+
+import com.auth.auth_microservice.exceptions.ClientNotFound;
+import com.auth.auth_microservice.exceptions.InvalidCredentials;
+import com.auth.auth_microservice.exceptions.TooManyAttempts;
+import com.auth.auth_microservice.model.LoginEvent;
+import com.auth.auth_microservice.repository.MongoResilience;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.client.model.InsertManyOptions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Login audit trail. {@link #record} only puts the event in a {@link RingBuffer}; a background
+ * writer drains it into unordered {@code insertMany} batches once {@code batch-size} events are
+ * waiting or {@code flush-interval} has passed. Events live in {@code login_events} until a TTL
+ * index removes them after {@code retention}. A batch that cannot be written is counted as failed
+ * and not retried, so an outage never backs up into the login path.
+ * <p>
+ * When the buffer is full, the {@code DROP} policy discards the event and counts it, while
+ * {@code BLOCK} makes the caller wait up to {@code block-timeout} for space before dropping. Only
+ * use {@code BLOCK} when losing events is worse than stalling logins, since callers run on event
+ * loop threads.
+ */
+@Slf4j
+@Component
+public class LoginAudit implements InitializingBean, DisposableBean {
+    private static final InsertManyOptions UNORDERED = new InsertManyOptions().ordered(false);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final MongoResilience mongoResilience;
+    private final String collectionName;
+    private final boolean enabled;
+    private final RingBuffer<LoginEvent> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final Duration retention;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Timer lag;
+    private volatile boolean running;
+    private Thread writer;
+
+    public enum OverflowPolicy {
+        DROP,
+        BLOCK
+    }
+
+    public LoginAudit(ReactiveMongoTemplate mongoTemplate,
+                      MongoResilience mongoResilience,
+                      MeterRegistry meterRegistry,
+                      @Value("${auth.audit.enabled:true}") boolean enabled,
+                      @Value("${auth.audit.capacity:8192}") int capacity,
+                      @Value("${auth.audit.batch-size:256}") int batchSize,
+                      @Value("${auth.audit.flush-interval:1s}") Duration flushInterval,
+                      @Value("${auth.audit.overflow:DROP}") OverflowPolicy overflowPolicy,
+                      @Value("${auth.audit.block-timeout:10ms}") Duration blockTimeout,
+                      @Value("${auth.audit.retention:90d}") Duration retention) {
+        this.mongoTemplate = mongoTemplate;
+        this.mongoResilience = mongoResilience;
+        this.collectionName = mongoTemplate.getCollectionName(LoginEvent.class);
+        this.enabled = enabled;
+        this.buffer = new RingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+        this.retention = retention;
+        this.written = counter(meterRegistry, "written");
+        this.dropped = counter(meterRegistry, "dropped");
+        this.failed = counter(meterRegistry, "failed");
+        this.lag = Timer.builder("auth.audit.lag")
+                .description("Time from recording a login event to writing it")
+                .register(meterRegistry);
+        Gauge.builder("auth.audit.queue.size", buffer, RingBuffer::size).register(meterRegistry);
+    }
+
+    public void record(String username, LoginEvent.Outcome outcome, String address) {
+        if (!enabled) {
+            return;
+        }
+        Instant now = Instant.now();
+        LoginEvent event = new LoginEvent(null, username, outcome, address, now, now.plus(retention));
+        if (!buffer.offer(event) && !(overflowPolicy == OverflowPolicy.BLOCK && offerWithin(event))) {
+            dropped.increment();
+            return;
+        }
+        if (buffer.size() >= batchSize) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    public static LoginEvent.Outcome outcome(Throwable error) {
+        if (error instanceof InvalidCredentials) {
+            return LoginEvent.Outcome.INVALID_CREDENTIALS;
+        } else if (error instanceof ClientNotFound) {
+            return LoginEvent.Outcome.CLIENT_NOT_FOUND;
+        } else if (error instanceof TooManyAttempts) {
+            return LoginEvent.Outcome.THROTTLED;
+        }
+        return LoginEvent.Outcome.ERROR;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drain, "login-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (writer != null) {
+            running = false;
+            LockSupport.unpark(writer);
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    private boolean offerWithin(LoginEvent event) {
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        do {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+            if (buffer.offer(event)) {
+                return true;
+            }
+        } while (deadline - System.nanoTime() > 0);
+        return false;
+    }
+
+    private void drain() {
+        List<LoginEvent> batch = new ArrayList<>(batchSize);
+        while (running || buffer.size() > 0) {
+            long deadline = System.nanoTime() + flushIntervalNanos;
+            while (batch.size() < batchSize) {
+                buffer.drainTo(batch, batchSize - batch.size());
+                long remaining = deadline - System.nanoTime();
+                if (batch.size() >= batchSize || !running || remaining <= 0) {
+                    break;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<LoginEvent> batch) {
+        List<Document> documents = new ArrayList<>(batch.size());
+        for (LoginEvent event : batch) {
+            Document document = new Document();
+            mongoTemplate.getConverter().write(event, document);
+            documents.add(document);
+        }
+        int failures = 0;
+        try {
+            mongoResilience.mono("audit", mongoTemplate.getCollection(collectionName)
+                    .flatMap(collection -> Mono.from(collection.insertMany(documents, UNORDERED))))
+                    .block();
+        } catch (MongoBulkWriteException exception) {
+            failures = exception.getWriteErrors().size();
+        } catch (RuntimeException exception) {
+            failures = batch.size();
+            log.warn("Could not write {} login events: {}", batch.size(), exception.getMessage());
+        }
+        written.increment(batch.size() - failures);
+        failed.increment(failures);
+        Instant now = Instant.now();
+        for (LoginEvent event : batch) {
+            lag.record(Duration.between(event.getAt(), now));
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auth.audit.events")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,60 @@
+package com.auth.auth_microservice.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Rejects login and client-credentials token requests from a client address that exhausted its
+ * budget before the request body is read; both paths draw on the same per-address bucket. Runs
+ * ahead of the security chain. Behind a gateway every request comes from the gateway's address, so
+ * set {@code auth.rate-limit.address.header} to the header it forwards the client address in;
+ * otherwise all clients share one bucket. Admitted requests carry the address in the Reactor
+ * context, see {@link ClientAddress}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class LoginRateLimitFilter implements WebFilter {
+    private static final String LOGIN_PATH = "/auth/login";
+    private static final String TOKEN_PATH = "/auth/token";
+
+    private final LoginAttemptGuard loginAttemptGuard;
+    private final String addressHeader;
+
+    public LoginRateLimitFilter(LoginAttemptGuard loginAttemptGuard,
+                                @Value("${auth.rate-limit.address.header:}") String addressHeader) {
+        this.loginAttemptGuard = loginAttemptGuard;
+        this.addressHeader = addressHeader;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().pathWithinApplication().value();
+        if (request.getMethod() != HttpMethod.POST || !(LOGIN_PATH.equals(path) || TOKEN_PATH.equals(path))) {
+            return chain.filter(exchange);
+        }
+        String address = ClientAddress.of(request, addressHeader);
+        Duration retryAfter = loginAttemptGuard.admitAddress(address);
+        if (retryAfter.isZero()) {
+            return chain.filter(exchange)
+                    .contextWrite(context -> ClientAddress.with(context, address));
+        }
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())));
+        return response.setComplete();
+    }
+}
@@ -0,0 +1,96 @@
+package com.auth.auth_microservice.security;
+
+import com.auth.auth_microservice.exceptions.ServiceUnavailable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs {@link PasswordEncoder} work on a dedicated bounded scheduler so hashing never
+ * blocks the Netty event loop. Work beyond {@code threads + queueCapacity} pending
+ * operations is rejected up front with {@link ServiceUnavailable}.
+ */
+@Component
+public class PasswordHasher implements DisposableBean {
+    private final PasswordEncoder passwordEncoder;
+    private final Scheduler scheduler;
+    private final int poolSize;
+    private final int capacity;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Counter rejected;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          @Value("${auth.hashing.threads:0}") int threads,
+                          @Value("${auth.hashing.queue-capacity:256}") int queueCapacity,
+                          MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.capacity = poolSize + queueCapacity;
+        this.scheduler = Schedulers.newBoundedElastic(poolSize, capacity, "password-hash");
+        this.encodeTimer = Timer.builder("auth.password.hash")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchTimer = Timer.builder("auth.password.hash")
+                .tag("operation", "match")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.password.hash.rejected")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.pending", pending, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    public Mono<String> encode(CharSequence rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public Mono<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(matchTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Encodes only when a hashing thread is free, otherwise completes empty. For optional work such
+     * as rehashing an outdated password, which must never delay logins.
+     */
+    public Mono<String> encodeWhenIdle(CharSequence rawPassword) {
+        return Mono.defer(() -> pending.get() < poolSize ? encode(rawPassword) : Mono.empty());
+    }
+
+    public int getParallelism() {
+        return poolSize;
+    }
+
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> Mono<T> submit(Timer timer, Callable<T> task) {
+        return Mono.defer(() -> {
+            if (pending.incrementAndGet() > capacity) {
+                pending.decrementAndGet();
+                rejected.increment();
+                return Mono.error(new ServiceUnavailable("The server is busy, try again later"));
+            }
+            return Mono.fromCallable(timer.wrap(task))
+                    .subscribeOn(scheduler)
+                    .doFinally(signal -> pending.decrementAndGet());
+        });
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+}
@@ -0,0 +1,76 @@
+package com.auth.auth_microservice.security;
+
+import com.auth.auth_microservice.model.RefreshToken;
+import com.auth.auth_microservice.repository.MongoResilience;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque, single-use refresh tokens. Only a SHA-256 of each token is stored, keyed by {@code _id},
+ * so consuming one is a single indexed {@code findAndRemove}; a TTL index drops expired ones.
+ */
+@Component
+public class RefreshTokenStore {
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final MongoResilience mongoResilience;
+    private final Duration ttl;
+
+    public RefreshTokenStore(ReactiveMongoTemplate mongoTemplate,
+                             MongoResilience mongoResilience,
+                             @Value("${jwt.refresh-token-ttl:14d}") Duration ttl) {
+        this.mongoTemplate = mongoTemplate;
+        this.mongoResilience = mongoResilience;
+        this.ttl = ttl;
+    }
+
+    public Mono<String> issue(String username) {
+        return mongoResilience.mono("refresh-token", Mono.defer(() -> {
+            byte[] bytes = new byte[32];
+            RANDOM.nextBytes(bytes);
+            String token = ENCODER.encodeToString(bytes);
+            RefreshToken refreshToken = new RefreshToken(hash(token), username, Instant.now().plus(ttl));
+            return mongoTemplate.insert(refreshToken).thenReturn(token);
+        }));
+    }
+
+    /**
+     * Removes the token and returns its username, or completes empty when it is unknown,
+     * expired or already used.
+     */
+    public Mono<String> consume(String token) {
+        return mongoResilience.mono("refresh-token", Mono.defer(() -> mongoTemplate.findAndRemove(
+                        Query.query(Criteria.where("_id").is(hash(token)).and("expiresAt").gt(Instant.now())),
+                        RefreshToken.class)))
+                .map(RefreshToken::getUsername);
+    }
+
+    public Mono<Void> revoke(String token) {
+        return mongoResilience.mono("refresh-token", Mono.defer(() -> mongoTemplate.remove(
+                        Query.query(Criteria.where("_id").is(hash(token))), RefreshToken.class)))
+                .then();
+    }
+
+    static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return ENCODER.encodeToString(digest);
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
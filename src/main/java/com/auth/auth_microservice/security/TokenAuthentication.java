@@ -0,0 +1,74 @@
+package com.auth.auth_microservice.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * The authentication of a request carrying a verified token. Unlike the Spring tokens, which copy
+ * their authorities, it keeps the list shared by all tokens with the same roles or scopes.
+ */
+public final class TokenAuthentication implements Authentication {
+    private final Object principal;
+    private final List<GrantedAuthority> authorities;
+
+    /**
+     * @param principal the username of a user token or the {@link ClientPrincipal} of a client token
+     */
+    public TokenAuthentication(Object principal, List<GrantedAuthority> authorities) {
+        this.principal = principal;
+        this.authorities = authorities;
+    }
+
+    public static TokenAuthentication of(VerifiedToken verifiedToken) {
+        Object principal = verifiedToken.isClient()
+                ? new ClientPrincipal(verifiedToken.getSubject(), verifiedToken.getScopes())
+                : verifiedToken.getSubject();
+        return new TokenAuthentication(principal, verifiedToken.getAuthorities());
+    }
+
+    @Override
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getDetails() {
+        return null;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return principal;
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return true;
+    }
+
+    @Override
+    public void setAuthenticated(boolean authenticated) {
+        if (authenticated) {
+            return;
+        }
+        throw new IllegalArgumentException("A verified token cannot be marked unauthenticated");
+    }
+
+    @Override
+    public String getName() {
+        return principal instanceof Principal ? ((Principal) principal).getName() : (String) principal;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[principal=" + getName() + ", authorities=" + authorities + "]";
+    }
+}
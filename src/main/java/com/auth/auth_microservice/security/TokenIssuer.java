@@ -0,0 +1,70 @@
+package com.auth.auth_microservice.security;
+
+import com.auth.auth_microservice.exceptions.InvalidCredentials;
+import com.auth.auth_microservice.metrics.AuthMetrics;
+import com.auth.auth_microservice.model.TokenPair;
+import com.auth.auth_microservice.repository.UserCredentialsCache;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Issues short-lived access tokens together with a rotating refresh token, so refreshing costs a
+ * single indexed lookup instead of another password check. Access tokens carry the user's roles;
+ * a refresh reads them again through the credentials cache, so role changes apply from the next
+ * refresh on.
+ */
+@Component
+public class TokenIssuer {
+    private final JwtUtil jwtUtil;
+    private final TokenVerifier tokenVerifier;
+    private final RefreshTokenStore refreshTokenStore;
+    private final TokenRevocationList revocationList;
+    private final UserCredentialsCache userCredentialsCache;
+    private final AuthMetrics authMetrics;
+
+    public TokenIssuer(JwtUtil jwtUtil,
+                       TokenVerifier tokenVerifier,
+                       RefreshTokenStore refreshTokenStore,
+                       TokenRevocationList revocationList,
+                       UserCredentialsCache userCredentialsCache,
+                       AuthMetrics authMetrics) {
+        this.jwtUtil = jwtUtil;
+        this.tokenVerifier = tokenVerifier;
+        this.refreshTokenStore = refreshTokenStore;
+        this.revocationList = revocationList;
+        this.userCredentialsCache = userCredentialsCache;
+        this.authMetrics = authMetrics;
+    }
+
+    /**
+     * @param roles the stored roles of the user, {@code null} for the default roles
+     */
+    public Mono<TokenPair> issue(String username, String roles) {
+        String claim = roles == null ? Authorities.DEFAULT_ROLES : roles;
+        return Mono.defer(() -> {
+            String token = authMetrics.tokenSign().record(() -> jwtUtil.generateToken(username, claim));
+            return refreshTokenStore.issue(username)
+                    .map(refreshToken -> new TokenPair(token, refreshToken));
+        });
+    }
+
+    public Mono<TokenPair> refresh(String refreshToken) {
+        return refreshTokenStore.consume(refreshToken)
+                .flatMap(userCredentialsCache::findByUsername)
+                .switchIfEmpty(Mono.error(new InvalidCredentials("The refresh token is invalid")))
+                .flatMap(user -> issue(user.getUsername(), user.getRoles()));
+    }
+
+    public Mono<Void> revoke(String accessToken, String refreshToken) {
+        Mono<Void> revokeAccessToken = Mono.defer(() -> {
+            VerifiedToken verifiedToken = tokenVerifier.verify(accessToken);
+            if (verifiedToken == null || verifiedToken.getId() == null || verifiedToken.getExpiration() == null) {
+                return Mono.empty();
+            }
+            return revocationList.revoke(verifiedToken.getId(), verifiedToken.getExpiration());
+        });
+        return refreshToken == null
+                ? revokeAccessToken
+                : revokeAccessToken.then(refreshTokenStore.revoke(refreshToken));
+    }
+}
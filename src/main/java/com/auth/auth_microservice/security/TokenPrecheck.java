@@ -0,0 +1,138 @@
+package com.auth.auth_microservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.interfaces.ECKey;
+import java.security.interfaces.RSAKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Structural checks run before a token is parsed: three base64url segments within length bounds,
+ * a header naming a key of the {@link JwtKeyRing} with that key's algorithm, and a signature of the
+ * length the key produces. Garbage is rejected without decoding the claims, checking a signature or
+ * throwing. Header segments are the same for every token of a key, so their verdict is cached.
+ */
+@Component
+public class TokenPrecheck {
+    private static final int MAX_HEADER_LENGTH = 512;
+    private static final int UNKNOWN_KEY = -1;
+
+    private final JwtKeyRing keyRing;
+    private final int maxLength;
+    private final Cache<String, Integer> signatureLengths;
+
+    public TokenPrecheck(JwtKeyRing keyRing,
+                         @Value("${jwt.max-token-length:4096}") int maxLength) {
+        this.keyRing = keyRing;
+        this.maxLength = maxLength;
+        this.signatureLengths = Caffeine.newBuilder()
+                .maximumSize(256)
+                .expireAfterWrite(Duration.ofMinutes(1))
+                .build();
+    }
+
+    /**
+     * @param offset where the token starts in {@code value}, so {@code "Bearer "} needs no substring
+     */
+    public boolean isWellFormed(String value, int offset) {
+        int end = value.length();
+        if (end - offset <= 0 || end - offset > maxLength) {
+            return false;
+        }
+        int firstDot = -1;
+        int secondDot = -1;
+        for (int i = offset; i < end; i++) {
+            char c = value.charAt(i);
+            if (c == '.') {
+                if (firstDot < 0) {
+                    firstDot = i;
+                } else if (secondDot < 0) {
+                    secondDot = i;
+                } else {
+                    return false;
+                }
+            } else if (!isBase64Url(c)) {
+                return false;
+            }
+        }
+        if (secondDot < 0
+                || !isSegmentLength(firstDot - offset, MAX_HEADER_LENGTH)
+                || !isSegmentLength(secondDot - firstDot - 1, maxLength)) {
+            return false;
+        }
+        int signatureLength = signatureLengths.get(value.substring(offset, firstDot), this::signatureLength);
+        return signatureLength != UNKNOWN_KEY && signatureLength == end - secondDot - 1;
+    }
+
+    private Integer signatureLength(String headerSegment) {
+        String header = new String(Base64.getUrlDecoder().decode(headerSegment), StandardCharsets.UTF_8);
+        String algorithm = stringField(header, "alg");
+        JwtKey key = keyRing.verificationKey(stringField(header, "kid"), Instant.now());
+        if (key == null || !key.getAlgorithm().getValue().equals(algorithm)) {
+            return UNKNOWN_KEY;
+        }
+        return base64UrlLength(signatureBytes(key));
+    }
+
+    private static int signatureBytes(JwtKey key) {
+        SignatureAlgorithm algorithm = key.getAlgorithm();
+        if (algorithm.isHmac()) {
+            return algorithm.getMinKeyLength() / 8;
+        }
+        if (algorithm.isEllipticCurve()) {
+            int fieldSize = ((ECKey) key.getVerificationKey()).getParams().getCurve().getField().getFieldSize();
+            return 2 * ((fieldSize + 7) / 8);
+        }
+        return (((RSAKey) key.getVerificationKey()).getModulus().bitLength() + 7) / 8;
+    }
+
+    private static int base64UrlLength(int bytes) {
+        return (bytes * 8 + 5) / 6;
+    }
+
+    private static boolean isSegmentLength(int length, int max) {
+        return length > 0 && length <= max && length % 4 != 1;
+    }
+
+    private static boolean isBase64Url(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+    }
+
+    /**
+     * @return the value of a top-level string member of a compact JSON object, or {@code null} when
+     * it is missing or escaped; enough for JOSE headers, which are not trusted beyond this point
+     */
+    static String stringField(String json, String name) {
+        int index = json.indexOf('"' + name + '"');
+        if (index < 0) {
+            return null;
+        }
+        index = skipWhitespace(json, index + name.length() + 2);
+        if (index >= json.length() || json.charAt(index) != ':') {
+            return null;
+        }
+        index = skipWhitespace(json, index + 1);
+        if (index >= json.length() || json.charAt(index) != '"') {
+            return null;
+        }
+        int end = json.indexOf('"', index + 1);
+        if (end < 0 || json.lastIndexOf('\\', end) > index) {
+            return null;
+        }
+        return json.substring(index + 1, end);
+    }
+
+    private static int skipWhitespace(String json, int index) {
+        while (index < json.length() && Character.isWhitespace(json.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,112 @@
+package com.auth.auth_microservice.security;
+
+import com.auth.auth_microservice.model.RevokedToken;
+import com.auth.auth_microservice.repository.MongoResilience;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked access token ids. Revocations live in the {@code revoked_tokens} collection until the token
+ * would have expired; every instance mirrors them in memory and polls for new ones. Checks go through
+ * a {@link BloomFilter} first so the common, not revoked, case never touches the map.
+ */
+@Slf4j
+@Component
+public class TokenRevocationList implements InitializingBean, DisposableBean {
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(5);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final MongoResilience mongoResilience;
+    private final Duration syncPeriod;
+    private final int expectedRevocations;
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter;
+    private volatile Instant lastSync = Instant.EPOCH;
+    private Disposable synchronization;
+
+    public TokenRevocationList(ReactiveMongoTemplate mongoTemplate,
+                               MongoResilience mongoResilience,
+                               @Value("${jwt.revocation.sync-period:10s}") Duration syncPeriod,
+                               @Value("${jwt.revocation.expected-size:10000}") int expectedRevocations) {
+        this.mongoTemplate = mongoTemplate;
+        this.mongoResilience = mongoResilience;
+        this.syncPeriod = syncPeriod;
+        this.expectedRevocations = expectedRevocations;
+        this.bloomFilter = newBloomFilter();
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && bloomFilter.mightContain(tokenId) && revoked.containsKey(tokenId);
+    }
+
+    public Mono<Void> revoke(String tokenId, Instant expiresAt) {
+        return Mono.defer(() -> {
+            add(tokenId, expiresAt);
+            return mongoResilience.mono("revocation",
+                    mongoTemplate.save(new RevokedToken(tokenId, expiresAt, Instant.now()))).then();
+        });
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        synchronization = Flux.interval(Duration.ZERO, syncPeriod)
+                .onBackpressureDrop()
+                .concatMap(tick -> synchronize()
+                        .onErrorResume(exception -> {
+                            log.warn("Could not synchronize revoked tokens: {}", exception.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @Override
+    public void destroy() {
+        if (synchronization != null) {
+            synchronization.dispose();
+        }
+    }
+
+    Mono<Void> synchronize() {
+        Instant startedAt = Instant.now();
+        Query query = Query.query(Criteria.where("revokedAt").gte(lastSync.minus(CLOCK_SKEW)));
+        return mongoTemplate.find(query, RevokedToken.class)
+                .doOnNext(token -> add(token.getId(), token.getExpiresAt()))
+                .then(Mono.fromRunnable(() -> {
+                    lastSync = startedAt;
+                    purgeExpired(startedAt);
+                }));
+    }
+
+    private void add(String tokenId, Instant expiresAt) {
+        revoked.put(tokenId, expiresAt);
+        bloomFilter.put(tokenId);
+    }
+
+    private void purgeExpired(Instant now) {
+        if (revoked.values().removeIf(expiresAt -> expiresAt.isBefore(now))) {
+            BloomFilter rebuilt = newBloomFilter();
+            revoked.keySet().forEach(rebuilt::put);
+            bloomFilter = rebuilt;
+            // entries revoked while rebuilding may only be in the previous filter
+            revoked.keySet().forEach(rebuilt::put);
+        }
+    }
+
+    private BloomFilter newBloomFilter() {
+        return new BloomFilter(expectedRevocations, 0.001);
+    }
+}
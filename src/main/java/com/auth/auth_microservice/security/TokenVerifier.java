@@ -0,0 +1,174 @@
+package com.auth.auth_microservice.security;
+
+import com.auth.auth_microservice.metrics.AuthMetrics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Function;
+
+/**
+ * Verifies bearer tokens through {@link JwtUtil#verify(String)} and keeps the result in a
+ * bounded cache until the token expires, so repeated requests skip parsing and signature checks.
+ * Tokens failing {@link TokenPrecheck} are never parsed. Rejections are counted by reason in
+ * {@code auth.token.rejected} instead of being thrown.
+ */
+@Component
+public class TokenVerifier {
+    private static final long DEFAULT_TTL_NANOS = Duration.ofMinutes(10).toNanos();
+    private static final String BEARER = "Bearer ";
+
+    private final JwtUtil jwtUtil;
+    private final TokenPrecheck precheck;
+    private final AuthMetrics authMetrics;
+    private final TokenRevocationList revocationList;
+    private final Cache<TokenKey, VerifiedToken> cache;
+    private final Function<TokenKey, VerifiedToken> parse = key -> parse(key.value, key.offset);
+    private final Counter malformed;
+    private final Counter invalid;
+    private final Counter expired;
+    private final Counter revoked;
+
+    public TokenVerifier(JwtUtil jwtUtil,
+                         TokenPrecheck precheck,
+                         AuthMetrics authMetrics,
+                         TokenRevocationList revocationList,
+                         @Value("${auth.token-cache.max-size:10000}") long maxSize) {
+        this.jwtUtil = jwtUtil;
+        this.precheck = precheck;
+        this.authMetrics = authMetrics;
+        this.revocationList = revocationList;
+        this.malformed = authMetrics.tokenRejected("malformed");
+        this.invalid = authMetrics.tokenRejected("invalid");
+        this.expired = authMetrics.tokenRejected("expired");
+        this.revoked = authMetrics.tokenRejected("revoked");
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiration())
+                .recordStats()
+                .build();
+        authMetrics.monitor(cache, "auth.token.cache");
+    }
+
+    /**
+     * @return the verified token, or {@code null} when it is malformed, badly signed, expired or revoked
+     */
+    public VerifiedToken verify(String token) {
+        return verify(new TokenKey(token, 0));
+    }
+
+    /**
+     * Same as {@link #verify(String)} for an {@code Authorization} header value. Both share one cache
+     * entry per token, and a cached token costs no substring.
+     */
+    public VerifiedToken verifyBearer(String authorization) {
+        if (!authorization.startsWith(BEARER)) {
+            malformed.increment();
+            return null;
+        }
+        return verify(new TokenKey(authorization, BEARER.length()));
+    }
+
+    private VerifiedToken verify(TokenKey key) {
+        VerifiedToken verifiedToken = cache.get(key, parse);
+        if (verifiedToken == null) {
+            return null;
+        }
+        if (verifiedToken.isExpired(Instant.now())) {
+            expired.increment();
+            return null;
+        }
+        if (revocationList.isRevoked(verifiedToken.getId())) {
+            revoked.increment();
+            return null;
+        }
+        return verifiedToken;
+    }
+
+    private VerifiedToken parse(String value, int offset) {
+        if (!precheck.isWellFormed(value, offset)) {
+            malformed.increment();
+            return null;
+        }
+        String token = value.substring(offset);
+        try {
+            return authMetrics.tokenVerify().record(() -> jwtUtil.verify(token));
+        } catch (ExpiredJwtException exception) {
+            expired.increment();
+            return null;
+        } catch (JwtException exception) {
+            invalid.increment();
+            return null;
+        }
+    }
+
+    /**
+     * The token starting at {@code offset}, compared by its characters alone, so a bare token and an
+     * {@code Authorization} header carrying it are the same key.
+     */
+    private static final class TokenKey {
+        private final String value;
+        private final int offset;
+        private final int hash;
+
+        private TokenKey(String value, int offset) {
+            this.value = value;
+            this.offset = offset;
+            int h = 0;
+            for (int i = offset; i < value.length(); i++) {
+                h = 31 * h + value.charAt(i);
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof TokenKey)) {
+                return false;
+            }
+            TokenKey key = (TokenKey) other;
+            int length = value.length() - offset;
+            return hash == key.hash
+                    && length == key.value.length() - key.offset
+                    && value.regionMatches(offset, key.value, key.offset, length);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static class UntilTokenExpiration implements Expiry<TokenKey, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(TokenKey token, VerifiedToken verifiedToken, long currentTime) {
+            if (verifiedToken.getExpiration() == null) {
+                return DEFAULT_TTL_NANOS;
+            }
+            long remaining = Duration.between(Instant.now(), verifiedToken.getExpiration()).toNanos();
+            return Math.max(0, remaining);
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenKey token, VerifiedToken verifiedToken, long currentTime,
+                                      long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(TokenKey token, VerifiedToken verifiedToken, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
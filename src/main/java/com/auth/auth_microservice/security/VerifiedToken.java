@@ -0,0 +1,32 @@
+package com.auth.auth_microservice.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+
+@Value
+@AllArgsConstructor
+public class VerifiedToken {
+    String id;
+    String subject;
+    Instant expiration;
+    /** Scopes granted to a service client, {@code null} for user tokens. */
+    List<String> scopes;
+    /** {@code ROLE_} authorities of a user or {@code SCOPE_} authorities of a client, shared via {@link Authorities}. */
+    List<GrantedAuthority> authorities;
+
+    public VerifiedToken(String id, String subject, Instant expiration) {
+        this(id, subject, expiration, null, Authorities.ofRoles(null));
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiration != null && !expiration.isAfter(now);
+    }
+
+    public boolean isClient() {
+        return scopes != null;
+    }
+}
@@ -1,13 +1,21 @@
 package com.auth.auth_microservice.service;
 
 import com.auth.auth_microservice.model.AuthRequest;
+import com.auth.auth_microservice.model.TokenPair;
 import com.auth.auth_microservice.model.User;
-import io.reactivex.rxjava3.core.Flowable;
-import io.reactivex.rxjava3.core.Single;
+import com.auth.auth_microservice.model.UserView;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 public interface AuthService {
-    Single<String> authenticate(AuthRequest authRequest);
+    Mono<TokenPair> authenticate(AuthRequest authRequest);
 
-    Single<User> register(User authRequest);
-    Flowable<User> getAll();
+    Mono<TokenPair> refresh(String refreshToken);
+
+    Mono<Void> logout(String accessToken, String refreshToken);
+
+    Mono<User> register(User authRequest);
+    Flux<UserView> getAll(String after, int size);
+
+    Flux<UserView> streamAll(String after);
 }
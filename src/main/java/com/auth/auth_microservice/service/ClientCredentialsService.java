@@ -0,0 +1,17 @@
+package com.auth.auth_microservice.service;
+
+import com.auth.auth_microservice.model.ClientRegistration;
+import com.auth.auth_microservice.model.ClientRegistrationRequest;
+import com.auth.auth_microservice.model.ClientToken;
+import reactor.core.publisher.Mono;
+
+public interface ClientCredentialsService {
+    /**
+     * @param scope space-separated scopes to grant, {@code null} for all scopes of the client
+     */
+    Mono<ClientToken> issueToken(String clientId, String clientSecret, String scope);
+
+    Mono<ClientRegistration> register(ClientRegistrationRequest request);
+
+    Mono<Void> disable(String clientId);
+}
@@ -0,0 +1,50 @@
+package com.auth.auth_microservice.service;
+
+import com.auth.auth_microservice.model.AuthRequest;
+import com.auth.auth_microservice.model.TokenPair;
+import com.auth.auth_microservice.model.User;
+import com.auth.auth_microservice.model.UserView;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Single;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.adapter.rxjava.RxJava3Adapter;
+
+/**
+ * RxJava3 view of {@link AuthService} for callers that still consume {@code Single}/{@code Flowable}.
+ * Only registered with {@code auth.rxjava.enabled=true}; the web layer uses the Reactor API directly.
+ */
+@Service
+@ConditionalOnProperty(name = "auth.rxjava.enabled", havingValue = "true")
+public class RxAuthService {
+    private final AuthService authService;
+
+    public RxAuthService(AuthService authService) {
+        this.authService = authService;
+    }
+
+    public Single<TokenPair> authenticate(AuthRequest authRequest) {
+        return RxJava3Adapter.monoToSingle(authService.authenticate(authRequest));
+    }
+
+    public Single<TokenPair> refresh(String refreshToken) {
+        return RxJava3Adapter.monoToSingle(authService.refresh(refreshToken));
+    }
+
+    public Completable logout(String accessToken, String refreshToken) {
+        return RxJava3Adapter.monoToCompletable(authService.logout(accessToken, refreshToken));
+    }
+
+    public Single<User> register(User user) {
+        return RxJava3Adapter.monoToSingle(authService.register(user));
+    }
+
+    public Flowable<UserView> getAll(String after, int size) {
+        return RxJava3Adapter.fluxToFlowable(authService.getAll(after, size));
+    }
+
+    public Flowable<UserView> streamAll(String after) {
+        return RxJava3Adapter.fluxToFlowable(authService.streamAll(after));
+    }
+}
@@ -0,0 +1,16 @@
+package com.auth.auth_microservice.service;
+
+import com.auth.auth_microservice.model.IntrospectionResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface TokenIntrospectionService {
+    Mono<IntrospectionResult> introspect(String token);
+
+    /**
+     * @return one result per token, in the order of {@code tokens}
+     */
+    Flux<IntrospectionResult> introspect(List<String> tokens);
+}
@@ -0,0 +1,14 @@
+package com.auth.auth_microservice.service;
+
+import com.auth.auth_microservice.model.ImportResult;
+import com.auth.auth_microservice.model.User;
+import reactor.core.publisher.Flux;
+
+public interface UserImportService {
+    /**
+     * @param prehashed   whether the passwords are already {@code {id}}-prefixed hashes, for migrations
+     * @param assignRoles whether the records may carry roles; when not, a record asking for more than
+     *                    the default roles is rejected as invalid
+     */
+    Flux<ImportResult> importUsers(Flux<User> users, boolean prehashed, boolean assignRoles);
+}
@@ -2,17 +2,28 @@ package com.auth.auth_microservice.service.serviceImp;
 
 import com.auth.auth_microservice.exceptions.ClientNotFound;
 import com.auth.auth_microservice.exceptions.InvalidCredentials;
+import com.auth.auth_microservice.metrics.AuthMetrics;
 import com.auth.auth_microservice.model.AuthRequest;
+import com.auth.auth_microservice.model.LoginEvent;
+import com.auth.auth_microservice.model.TokenPair;
 import com.auth.auth_microservice.model.User;
-import com.auth.auth_microservice.repository.UserRepository;
+import com.auth.auth_microservice.model.UserCredentials;
+import com.auth.auth_microservice.model.UserView;
+import com.auth.auth_microservice.repository.MongoResilience;
+import com.auth.auth_microservice.repository.UserCredentialsCache;
+import com.auth.auth_microservice.repository.UserStore;
 import com.auth.auth_microservice.service.AuthService;
-import com.auth.auth_microservice.security.JwtUtil;
-import io.reactivex.rxjava3.core.Flowable;
-import io.reactivex.rxjava3.core.Single;
+import com.auth.auth_microservice.security.Authorities;
+import com.auth.auth_microservice.security.ClientAddress;
+import com.auth.auth_microservice.security.LoginAttemptGuard;
+import com.auth.auth_microservice.security.LoginAudit;
+import com.auth.auth_microservice.security.PasswordHasher;
+import com.auth.auth_microservice.security.TokenIssuer;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
-import reactor.adapter.rxjava.RxJava3Adapter;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.UUID;
@@ -21,51 +32,125 @@ import java.util.UUID;
 @Service
 @Slf4j
 public class AuthServiceImp implements AuthService {
-    private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
-    private final JwtUtil jwtUtil;
-    public AuthServiceImp(UserRepository userRepository,
-                          PasswordEncoder passwordEncoder,
-                          JwtUtil jwtUtil) {
-        this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
-        this.jwtUtil = jwtUtil;
+    private final UserStore userStore;
+    private final UserCredentialsCache userCredentialsCache;
+    private final PasswordHasher passwordHasher;
+    private final TokenIssuer tokenIssuer;
+    private final LoginAttemptGuard loginAttemptGuard;
+    private final LoginAudit loginAudit;
+    private final AuthMetrics authMetrics;
+    private final MongoResilience mongoResilience;
+    private final int maxPageSize;
+    public AuthServiceImp(UserStore userStore,
+                          UserCredentialsCache userCredentialsCache,
+                          PasswordHasher passwordHasher,
+                          TokenIssuer tokenIssuer,
+                          LoginAttemptGuard loginAttemptGuard,
+                          LoginAudit loginAudit,
+                          AuthMetrics authMetrics,
+                          MongoResilience mongoResilience,
+                          @Value("${auth.users.max-page-size:100}") int maxPageSize) {
+        this.userStore = userStore;
+        this.userCredentialsCache = userCredentialsCache;
+        this.passwordHasher = passwordHasher;
+        this.tokenIssuer = tokenIssuer;
+        this.loginAttemptGuard = loginAttemptGuard;
+        this.loginAudit = loginAudit;
+        this.authMetrics = authMetrics;
+        this.mongoResilience = mongoResilience;
+        this.maxPageSize = maxPageSize;
     }
     @Override
-    public Single<String> authenticate(AuthRequest authRequest) {
-        return RxJava3Adapter.monoToSingle(
-                userRepository.findByUsername(authRequest.getUsername())
+    public Mono<TokenPair> authenticate(AuthRequest authRequest) {
+        String username = authRequest.getUsername();
+        return ClientAddress.current().flatMap(address -> authMetrics.recordLogin(
+                loginAttemptGuard.admitUsername(username)
+                        .then(userCredentialsCache.findByUsername(username))
                         .switchIfEmpty(
                             Mono.error(
-                                new ClientNotFound("The client with id "+authRequest.getUsername()+" not exists")))
-                        .flatMap(user -> {
-                            if (passwordEncoder.matches(authRequest.getPassword(), user.getPassword())) {
-                                String token = jwtUtil.generateToken(user.getUsername());
-                                return Mono.just(token);
-                            }
-                            return Mono.error(new InvalidCredentials("The credentials are incorrect"));
+                                new ClientNotFound("The client does not exist")))
+                        .flatMap(user -> passwordHasher.matches(authRequest.getPassword(), user.getPassword())
+                                .flatMap(matches -> {
+                                    if (matches) {
+                                        rehashIfOutdated(user, authRequest.getPassword());
+                                        return tokenIssuer.issue(user.getUsername(), user.getRoles());
+                                    }
+                                    return Mono.<TokenPair>error(new InvalidCredentials("The credentials are incorrect"));
+                                }))
+                        .doOnSuccess(tokens -> {
+                            loginAttemptGuard.recordSuccess(username);
+                            loginAudit.record(username, LoginEvent.Outcome.SUCCESS, address);
                         })
-        );
+                        .doOnError(InvalidCredentials.class, exception -> loginAttemptGuard.recordFailure(username))
+                        .doOnError(exception -> loginAudit.record(username, LoginAudit.outcome(exception), address))));
     }
 
     @Override
-    public Single<User> register(User authRequest) {
-        return RxJava3Adapter.monoToSingle(
-                userRepository.findByUsername(authRequest.getUsername())
-                        .flatMap(user -> Mono.error(new InvalidCredentials("User already exist.")))
-                        .switchIfEmpty(userRepository.save(
-                                User.builder()
-                                        .id(UUID.randomUUID().toString())
-                                        .username(authRequest.getUsername())
-                                        .password(passwordEncoder.encode(authRequest.getPassword()))
-                                        .email(authRequest.getEmail())
-                                        .dateBorn(authRequest.getDateBorn()).build()))
-                        .cast(User.class));
+    public Mono<TokenPair> refresh(String refreshToken) {
+        return tokenIssuer.refresh(refreshToken);
     }
 
     @Override
-    public Flowable<User> getAll() {
-        return RxJava3Adapter.fluxToFlowable(userRepository.findAll());
+    public Mono<Void> logout(String accessToken, String refreshToken) {
+        return tokenIssuer.revoke(accessToken, refreshToken);
+    }
+
+    @Override
+    public Mono<User> register(User authRequest) {
+        return authMetrics.recordRegister(
+                userCredentialsCache.findByUsername(authRequest.getUsername())
+                        .hasElement()
+                        .flatMap(exists -> exists
+                                ? Mono.<User>error(new InvalidCredentials("User already exist."))
+                                : passwordHasher.encode(authRequest.getPassword())
+                                        .flatMap(encodedPassword -> mongoResilience.mono("insert", userStore.insert(
+                                                User.builder()
+                                                        .id(UUID.randomUUID().toString())
+                                                        .username(authRequest.getUsername())
+                                                        .password(encodedPassword)
+                                                        .email(authRequest.getEmail())
+                                                        .dateBorn(authRequest.getDateBorn())
+                                                        .roles(Authorities.DEFAULT_ROLES).build()))))
+                        .doOnSuccess(user -> userCredentialsCache.invalidate(authRequest.getUsername()))
+                        .doOnError(DuplicateKeyException.class,
+                                exception -> userCredentialsCache.invalidate(authRequest.getUsername()))
+                        .onErrorMap(DuplicateKeyException.class,
+                                exception -> new InvalidCredentials("User already exist.")));
+    }
+
+    @Override
+    public Flux<UserView> getAll(String after, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        return mongoResilience.flux("page",
+                userStore.findAfter(cursor(after), pageSize));
+    }
+
+    @Override
+    public Flux<UserView> streamAll(String after) {
+        return mongoResilience.stream("stream", userStore.findAllAfter(cursor(after)));
+    }
+
+    /**
+     * Rewrites a hash made with an older algorithm or cost in the background, while the raw
+     * password is at hand. Skipped when the hashing pool is busy; the next login tries again.
+     */
+    private void rehashIfOutdated(UserCredentials user, String rawPassword) {
+        if (!passwordHasher.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+        passwordHasher.encodeWhenIdle(rawPassword)
+                .flatMap(encodedPassword -> mongoResilience.mono("update", userStore.updatePassword(
+                        user.getUsername(), user.getPassword(), encodedPassword)))
+                .filter(updated -> updated)
+                .subscribe(updated -> {
+                            userCredentialsCache.invalidate(user.getUsername());
+                            log.debug("Rehashed the password of {}", user.getUsername());
+                        },
+                        exception -> log.warn("Could not rehash the password of {}", user.getUsername(), exception));
+    }
+
+    private static String cursor(String after) {
+        return after == null ? "" : after;
     }
 
 
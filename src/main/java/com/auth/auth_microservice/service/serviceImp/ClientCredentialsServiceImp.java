@@ -0,0 +1,109 @@
+package com.auth.auth_microservice.service.serviceImp;
+
+import com.auth.auth_microservice.exceptions.InvalidRequest;
+import com.auth.auth_microservice.exceptions.ResourceNotFoundException;
+import com.auth.auth_microservice.exceptions.ServiceUnavailable;
+import com.auth.auth_microservice.metrics.AuthMetrics;
+import com.auth.auth_microservice.model.ClientRegistration;
+import com.auth.auth_microservice.model.ClientRegistrationRequest;
+import com.auth.auth_microservice.model.ClientToken;
+import com.auth.auth_microservice.model.ServiceClient;
+import com.auth.auth_microservice.security.ClientRegistry;
+import com.auth.auth_microservice.security.ClientSecretHasher;
+import com.auth.auth_microservice.security.JwtUtil;
+import com.auth.auth_microservice.service.ClientCredentialsService;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * The client-credentials grant. Clients are checked against the in-memory {@link ClientRegistry}
+ * with a keyed hash, so issuing a token costs no BCrypt round and, for known clients, no Mongo read.
+ */
+@Service
+public class ClientCredentialsServiceImp implements ClientCredentialsService {
+    /** RFC 6749 scope-token: printable ASCII except space, quote and backslash. */
+    private static final Pattern SCOPE_TOKEN = Pattern.compile("[\\x21\\x23-\\x5B\\x5D-\\x7E]+");
+    private static final String BEARER = "Bearer";
+
+    private final ClientRegistry clientRegistry;
+    private final ClientSecretHasher secretHasher;
+    private final JwtUtil jwtUtil;
+    private final AuthMetrics authMetrics;
+
+    public ClientCredentialsServiceImp(ClientRegistry clientRegistry,
+                                       ClientSecretHasher secretHasher,
+                                       JwtUtil jwtUtil,
+                                       AuthMetrics authMetrics) {
+        this.clientRegistry = clientRegistry;
+        this.secretHasher = secretHasher;
+        this.jwtUtil = jwtUtil;
+        this.authMetrics = authMetrics;
+    }
+
+    @Override
+    public Mono<ClientToken> issueToken(String clientId, String clientSecret, String scope) {
+        return authMetrics.recordClientToken(clientRegistry.authenticate(clientId, clientSecret)
+                .flatMap(client -> {
+                    String granted = grantedScope(client, scope);
+                    if (granted == null) {
+                        return Mono.error(new InvalidRequest("The requested scope is not granted to the client"));
+                    }
+                    String token = authMetrics.tokenSign()
+                            .record(() -> jwtUtil.generateClientToken(client.getId(), granted));
+                    return Mono.just(new ClientToken(token, BEARER, jwtUtil.getAccessTokenTtl().toSeconds(), granted));
+                }));
+    }
+
+    @Override
+    public Mono<ClientRegistration> register(ClientRegistrationRequest request) {
+        return Mono.defer(() -> {
+            if (!secretHasher.isConfigured()) {
+                return Mono.error(new ServiceUnavailable("Client credentials are not configured"));
+            }
+            List<String> scopes = List.copyOf(request.getScopes());
+            if (!scopes.stream().allMatch(scope -> scope != null && SCOPE_TOKEN.matcher(scope).matches())) {
+                return Mono.error(new InvalidRequest("Scopes must not contain spaces, quotes or backslashes"));
+            }
+            String secret = secretHasher.generateSecret();
+            ServiceClient client = ServiceClient.builder()
+                    .id(UUID.randomUUID().toString())
+                    .name(request.getName())
+                    .secretHash(secretHasher.hash(secret))
+                    .scopes(scopes)
+                    .enabled(true)
+                    .updatedAt(Instant.now())
+                    .build();
+            return clientRegistry.register(client)
+                    .map(saved -> new ClientRegistration(saved.getId(), secret, saved.getName(), saved.getScopes()));
+        });
+    }
+
+    @Override
+    public Mono<Void> disable(String clientId) {
+        return clientRegistry.disable(clientId)
+                .flatMap(found -> found
+                        ? Mono.<Void>empty()
+                        : Mono.error(new ResourceNotFoundException("The client does not exist")));
+    }
+
+    /**
+     * @return the requested scopes when the client holds all of them, all of its scopes when none are
+     * requested, otherwise {@code null}
+     */
+    private static String grantedScope(ServiceClient client, String scope) {
+        if (scope == null || scope.isBlank()) {
+            return String.join(" ", client.getScopes());
+        }
+        for (String requested : scope.trim().split(" +")) {
+            if (!client.getScopes().contains(requested)) {
+                return null;
+            }
+        }
+        return scope.trim();
+    }
+}
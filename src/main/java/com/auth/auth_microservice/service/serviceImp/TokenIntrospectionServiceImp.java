@@ -0,0 +1,77 @@
+package com.auth.auth_microservice.service.serviceImp;
+
+import com.auth.auth_microservice.exceptions.InvalidRequest;
+import com.auth.auth_microservice.model.IntrospectionResult;
+import com.auth.auth_microservice.security.TokenVerifier;
+import com.auth.auth_microservice.security.VerifiedToken;
+import com.auth.auth_microservice.service.TokenIntrospectionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Introspects tokens through {@link TokenVerifier}, the same cached path that authenticates requests.
+ * Batches larger than one chunk are split into chunks verified in parallel on the parallel
+ * scheduler; smaller ones are verified inline, where a hop to another thread would cost more
+ * than the verification itself.
+ */
+@Service
+public class TokenIntrospectionServiceImp implements TokenIntrospectionService {
+    private final TokenVerifier tokenVerifier;
+    private final int maxBatchSize;
+    private final int chunkSize;
+
+    public TokenIntrospectionServiceImp(TokenVerifier tokenVerifier,
+                                        @Value("${auth.introspect.max-batch-size:1000}") int maxBatchSize,
+                                        @Value("${auth.introspect.chunk-size:64}") int chunkSize) {
+        this.tokenVerifier = tokenVerifier;
+        this.maxBatchSize = maxBatchSize;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public Mono<IntrospectionResult> introspect(String token) {
+        return Mono.fromSupplier(() -> introspectNow(token));
+    }
+
+    @Override
+    public Flux<IntrospectionResult> introspect(List<String> tokens) {
+        if (tokens.size() > maxBatchSize) {
+            return Flux.error(new InvalidRequest("At most " + maxBatchSize + " tokens per request"));
+        }
+        if (tokens.size() <= chunkSize) {
+            return Flux.defer(() -> Flux.fromIterable(introspectNow(tokens)));
+        }
+        return Flux.fromIterable(tokens)
+                .buffer(chunkSize)
+                .flatMapSequential(chunk -> Mono.fromCallable(() -> introspectNow(chunk))
+                        .subscribeOn(Schedulers.parallel()), Schedulers.DEFAULT_POOL_SIZE)
+                .flatMapIterable(results -> results);
+    }
+
+    private List<IntrospectionResult> introspectNow(List<String> tokens) {
+        List<IntrospectionResult> results = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            results.add(introspectNow(token));
+        }
+        return results;
+    }
+
+    private IntrospectionResult introspectNow(String token) {
+        if (token == null || token.isEmpty()) {
+            return IntrospectionResult.inactive();
+        }
+        VerifiedToken verifiedToken = tokenVerifier.verify(token);
+        if (verifiedToken == null) {
+            return IntrospectionResult.inactive();
+        }
+        return IntrospectionResult.active(verifiedToken.getSubject(),
+                verifiedToken.getExpiration() == null ? null : verifiedToken.getExpiration().getEpochSecond(),
+                verifiedToken.getId());
+    }
+}
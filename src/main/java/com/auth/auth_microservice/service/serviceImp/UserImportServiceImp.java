@@ -0,0 +1,140 @@
+package com.auth.auth_microservice.service.serviceImp;
+
+import com.auth.auth_microservice.exceptions.ServiceUnavailable;
+import com.auth.auth_microservice.model.ImportResult;
+import com.auth.auth_microservice.model.User;
+import com.auth.auth_microservice.repository.MongoResilience;
+import com.auth.auth_microservice.repository.UserCredentialsCache;
+import com.auth.auth_microservice.repository.UserStore;
+import com.auth.auth_microservice.security.Authorities;
+import com.auth.auth_microservice.security.PasswordHasher;
+import com.auth.auth_microservice.service.UserImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Imports a stream of users: passwords are hashed in parallel on the {@link PasswordHasher} pool and
+ * the users are written in unordered {@code insertMany} batches. Every input record produces one
+ * {@link ImportResult}; a bad or duplicate record never fails the rest of the import. Roles are
+ * only taken from the records when the caller may assign them, otherwise users get
+ * {@link Authorities#DEFAULT_ROLES}.
+ */
+@Service
+@Slf4j
+public class UserImportServiceImp implements UserImportService {
+    private static final Pattern ENCODED_PASSWORD = Pattern.compile("^\\{(bcrypt|pbkdf2|argon2)}.+|^\\$2[aby]?\\$\\d\\d\\$.{53}$");
+
+    private final UserStore userStore;
+    private final UserCredentialsCache userCredentialsCache;
+    private final PasswordHasher passwordHasher;
+    private final Validator validator;
+    private final MongoResilience mongoResilience;
+    private final int batchSize;
+    private final int concurrency;
+
+    public UserImportServiceImp(UserStore userStore,
+                                UserCredentialsCache userCredentialsCache,
+                                PasswordHasher passwordHasher,
+                                Validator validator,
+                                MongoResilience mongoResilience,
+                                @Value("${auth.import.batch-size:500}") int batchSize,
+                                @Value("${auth.import.concurrency:0}") int concurrency) {
+        this.userStore = userStore;
+        this.userCredentialsCache = userCredentialsCache;
+        this.passwordHasher = passwordHasher;
+        this.validator = validator;
+        this.mongoResilience = mongoResilience;
+        this.batchSize = batchSize;
+        this.concurrency = concurrency > 0 ? concurrency : defaultConcurrency(passwordHasher.getParallelism());
+    }
+
+    /**
+     * A quarter of the hashing pool, so a large import leaves room for logins and registrations
+     * instead of filling the pool and getting them rejected by its admission control.
+     */
+    static int defaultConcurrency(int hasherParallelism) {
+        return Math.max(1, hasherParallelism / 4);
+    }
+
+    @Override
+    public Flux<ImportResult> importUsers(Flux<User> users, boolean prehashed, boolean assignRoles) {
+        return users
+                .flatMapSequential(user -> prepare(user, prehashed, assignRoles), concurrency)
+                .buffer(batchSize)
+                .concatMap(this::write);
+    }
+
+    private Mono<PendingUser> prepare(User user, boolean prehashed, boolean assignRoles) {
+        String violations = validator.validate(user).stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+        if (!violations.isEmpty()) {
+            return Mono.just(new PendingUser(null, ImportResult.invalid(user.getUsername(), violations)));
+        }
+        String roles = Authorities.normalizeRoles(user.getRoles());
+        if (!assignRoles && !Authorities.DEFAULT_ROLES.equals(roles)) {
+            return Mono.just(new PendingUser(null,
+                    ImportResult.invalid(user.getUsername(), "roles may only be assigned by an administrator")));
+        }
+        if (prehashed) {
+            if (!ENCODED_PASSWORD.matcher(user.getPassword()).matches()) {
+                return Mono.just(new PendingUser(null,
+                        ImportResult.invalid(user.getUsername(), "password is not a supported hash")));
+            }
+            return Mono.just(new PendingUser(withPassword(user, user.getPassword(), roles), null));
+        }
+        return passwordHasher.encode(user.getPassword())
+                .map(encodedPassword -> new PendingUser(withPassword(user, encodedPassword, roles), null))
+                .onErrorResume(ServiceUnavailable.class, exception -> Mono.just(
+                        new PendingUser(null, ImportResult.failed(user.getUsername(), exception.getMessage()))));
+    }
+
+    private Flux<ImportResult> write(List<PendingUser> batch) {
+        List<User> accepted = new ArrayList<>(batch.size());
+        List<ImportResult> rejected = new ArrayList<>();
+        for (PendingUser pending : batch) {
+            if (pending.user != null) {
+                accepted.add(pending.user);
+            } else {
+                rejected.add(pending.result);
+            }
+        }
+        return Flux.fromIterable(rejected)
+                .concatWith(mongoResilience.flux("import", userStore.insertAllUnordered(accepted))
+                        .doOnNext(result -> userCredentialsCache.invalidate(result.getUsername()))
+                        .onErrorResume(ServiceUnavailable.class, exception -> Flux.fromIterable(accepted)
+                                .map(user -> ImportResult.failed(user.getUsername(), exception.getMessage()))));
+    }
+
+    private static User withPassword(User user, String encodedPassword, String roles) {
+        return User.builder()
+                .id(UUID.randomUUID().toString())
+                .username(user.getUsername())
+                .password(encodedPassword)
+                .email(user.getEmail())
+                .dateBorn(user.getDateBorn())
+                .roles(roles)
+                .build();
+    }
+
+    private static final class PendingUser {
+        private final User user;
+        private final ImportResult result;
+
+        private PendingUser(User user, ImportResult result) {
+            this.user = user;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.auth.auth_microservice;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthMicroserviceApplicationTest {
+
+    @Test
+    @DisplayName("Buffer startup steps only for the fast-start profile or when asked to")
+    void testRecordsStartup() {
+        assertTrue(AuthMicroserviceApplication.recordsStartup("--spring.profiles.active=dev,fast-start"));
+        assertTrue(AuthMicroserviceApplication.recordsStartup("--auth.startup.record=true"));
+        assertFalse(AuthMicroserviceApplication.recordsStartup("--spring.profiles.active=dev"));
+    }
+}
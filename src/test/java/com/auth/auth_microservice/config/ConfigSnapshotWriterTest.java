@@ -0,0 +1,84 @@
+package com.auth.auth_microservice.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConfigSnapshotWriterTest {
+    private final ConfigSnapshotWriter writer = new ConfigSnapshotWriter();
+    private final ConfigSnapshotLocator locator = new ConfigSnapshotLocator();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Save the config server properties readable by the owner only and boot from them")
+    void testSnapshotRoundTrip() throws IOException {
+        Path snapshot = directory.resolve("config/config-snapshot.properties");
+        StandardEnvironment environment = environment(snapshot);
+        environment.getPropertySources().addFirst(new MapPropertySource(
+                "configserver:http://localhost:8888/auth-microservice/dev",
+                Map.of("jwt.secret", "s3cret", "auth.token-cache.max-size", 500)));
+
+        writer.onApplicationEvent(readyEvent(environment));
+
+        assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(snapshot)));
+        try (Stream<Path> files = Files.list(snapshot.getParent())) {
+            assertEquals(1, files.count());
+        }
+        PropertySource<?> loaded = locator.locate(environment(snapshot));
+        assertNotNull(loaded);
+        assertEquals("s3cret", loaded.getProperty("jwt.secret"));
+        assertEquals("500", loaded.getProperty("auth.token-cache.max-size"));
+    }
+
+    @Test
+    @DisplayName("Keep the last snapshot when the config server could not be reached")
+    void testConfigServerDown() throws IOException {
+        Path snapshot = directory.resolve("config-snapshot.properties");
+        Files.writeString(snapshot, "jwt.secret=previous\n");
+        StandardEnvironment environment = environment(snapshot);
+
+        writer.onApplicationEvent(readyEvent(environment));
+
+        assertEquals("jwt.secret=previous\n", Files.readString(snapshot));
+        assertEquals("previous", locator.locate(environment).getProperty("jwt.secret"));
+    }
+
+    @Test
+    @DisplayName("Boot without a snapshot when none was saved yet")
+    void testMissingSnapshot() {
+        assertNull(locator.locate(environment(directory.resolve("missing.properties"))));
+        assertNull(locator.locate(new StandardEnvironment()));
+    }
+
+    private static StandardEnvironment environment(Path snapshot) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test",
+                Map.of(ConfigSnapshotLocator.PATH_PROPERTY, snapshot.toString())));
+        return environment;
+    }
+
+    private static ApplicationReadyEvent readyEvent(StandardEnvironment environment) {
+        ConfigurableApplicationContext context = mock(ConfigurableApplicationContext.class);
+        when(context.getEnvironment()).thenReturn(environment);
+        return new ApplicationReadyEvent(mock(SpringApplication.class), new String[0], context, null);
+    }
+}
@@ -0,0 +1,78 @@
+package com.auth.auth_microservice.config;
+
+import com.auth.auth_microservice.model.LoginEvent;
+import com.auth.auth_microservice.model.RefreshToken;
+import com.auth.auth_microservice.model.User;
+import com.auth.auth_microservice.repository.UserPartition;
+import com.auth.auth_microservice.repository.UserPartitions;
+import com.mongodb.reactivestreams.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MongoIndexInitializerTest {
+    private MongoServer server;
+    private ReactiveMongoTemplate mongoTemplate;
+    private UserPartitions userPartitions;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        server.bind("localhost", 0);
+        InetSocketAddress address = server.getLocalAddress();
+        String uri = "mongodb://localhost:" + address.getPort() + "/auth";
+        mongoTemplate = new ReactiveMongoTemplate(MongoClients.create(uri), "auth");
+        userPartitions = new UserPartitions(List.of(
+                UserPartition.connect("users", uri, mongoTemplate.getConverter())), 160);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userPartitions.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("A failing unique index does not keep the other indexes from being created")
+    void testFailureDoesNotSkipOtherIndexes() {
+        ReactiveMongoTemplate users = userPartitions.all().get(0).getMongoTemplate();
+        users.insert(user("1", "ana")).block();
+        users.insert(user("2", "luis")).block();
+        MongoIndexInitializer initializer = new MongoIndexInitializer(mongoTemplate, userPartitions, true,
+                Duration.ofSeconds(10));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, initializer::start);
+
+        assertEquals("Missing indexes on [users:User[email]]", exception.getMessage());
+        assertTrue(hasIndexOn(mongoTemplate, RefreshToken.class, "expiresAt"));
+        assertTrue(hasIndexOn(mongoTemplate, LoginEvent.class, "expiresAt"));
+        assertTrue(hasIndexOn(users, User.class, "username"));
+    }
+
+    private static boolean hasIndexOn(ReactiveMongoTemplate template, Class<?> entity, String field) {
+        return Boolean.TRUE.equals(template.indexOps(entity).getIndexInfo()
+                .any(index -> index.isIndexForFields(List.of(field)))
+                .block());
+    }
+
+    private static User user(String id, String username) {
+        return User.builder()
+                .id(id)
+                .username(username)
+                .password("{bcrypt}hash")
+                .email("shared@example.com")
+                .dateBorn(LocalDate.of(1990, 1, 1))
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.auth.auth_microservice.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordEncoderConfigTest {
+
+    private final PasswordEncoderConfig config = new PasswordEncoderConfig();
+
+    @Test
+    @DisplayName("Match legacy unprefixed BCrypt hashes and flag them for rehashing")
+    void testLegacyBcryptHash() {
+        PasswordEncoder passwordEncoder = config.passwordEncoder(properties("bcrypt", 4));
+        String legacyHash = new BCryptPasswordEncoder(4).encode("password");
+
+        assertTrue(passwordEncoder.matches("password", legacyHash));
+        assertTrue(passwordEncoder.upgradeEncoding(legacyHash));
+    }
+
+    @Test
+    @DisplayName("Flag hashes from another algorithm or a lower cost for rehashing")
+    void testUpgradeEncoding() {
+        PasswordEncoder weak = config.passwordEncoder(properties("bcrypt", 4));
+        PasswordEncoder strong = config.passwordEncoder(properties("bcrypt", 5));
+        PasswordEncoder argon2 = config.passwordEncoder(properties("argon2", 4));
+
+        String weakHash = weak.encode("password");
+        String strongHash = strong.encode("password");
+
+        assertTrue(weakHash.startsWith("{bcrypt}"));
+        assertTrue(strong.matches("password", weakHash));
+        assertTrue(strong.upgradeEncoding(weakHash));
+        assertFalse(strong.upgradeEncoding(strongHash));
+        assertTrue(argon2.matches("password", strongHash));
+        assertTrue(argon2.upgradeEncoding(strongHash));
+        assertTrue(argon2.encode("password").startsWith("{argon2}"));
+    }
+
+    @Test
+    @DisplayName("Calibration never goes below the configured cost")
+    void testCalibrationKeepsMinimum() {
+        int strength = PasswordEncoderConfig.calibrate(6, 16, cost -> cost + 1,
+                BCryptPasswordEncoder::new, Duration.ofNanos(1), Duration.ofSeconds(10));
+
+        assertEquals(6, strength);
+    }
+
+    @Test
+    @DisplayName("Calibration stops raising the cost once its time limit has passed")
+    void testCalibrationLimit() {
+        int strength = PasswordEncoderConfig.calibrate(4, 16, cost -> cost + 1,
+                BCryptPasswordEncoder::new, Duration.ofSeconds(10), Duration.ZERO);
+
+        assertEquals(4, strength);
+    }
+
+    private static PasswordEncodingProperties properties(String algorithm, int bcryptStrength) {
+        PasswordEncodingProperties properties = new PasswordEncodingProperties();
+        properties.setAlgorithm(algorithm);
+        properties.getBcrypt().setStrength(bcryptStrength);
+        properties.getArgon2().setMemory(1024);
+        properties.getArgon2().setIterations(1);
+        return properties;
+    }
+}
@@ -0,0 +1,165 @@
+package com.auth.auth_microservice.config;
+
+import com.auth.auth_microservice.controller.AuthController;
+import com.auth.auth_microservice.controller.ClientController;
+import com.auth.auth_microservice.metrics.AuthMetrics;
+import com.auth.auth_microservice.model.TokenPair;
+import com.auth.auth_microservice.security.JwtKeyRing;
+import com.auth.auth_microservice.security.JwtUtil;
+import com.auth.auth_microservice.security.TokenPrecheck;
+import com.auth.auth_microservice.security.TokenRevocationList;
+import com.auth.auth_microservice.security.TokenVerifier;
+import com.auth.auth_microservice.service.AuthService;
+import com.auth.auth_microservice.service.ClientCredentialsService;
+import com.auth.auth_microservice.service.TokenIntrospectionService;
+import com.auth.auth_microservice.service.UserImportService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.WebFilterChainProxy;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SecurityConfigTest {
+    private static final String SECRET = "mysecretkeymysecretkeymysecretkeymysecretkey";
+
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET);
+    private final AuthService authService = mock(AuthService.class);
+    private final UserImportService userImportService = mock(UserImportService.class);
+    private final ClientCredentialsService clientCredentialsService = mock(ClientCredentialsService.class);
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        TokenVerifier tokenVerifier = new TokenVerifier(jwtUtil, new TokenPrecheck(JwtKeyRing.hmac(SECRET), 4096),
+                new AuthMetrics(new SimpleMeterRegistry()), mock(TokenRevocationList.class), 100);
+        SecurityConfig securityConfig = new SecurityConfig(tokenVerifier);
+        webTestClient = WebTestClient
+                .bindToController(new AuthController(authService, userImportService,
+                                mock(TokenIntrospectionService.class)),
+                        new ClientController(clientCredentialsService))
+                .webFilter(new WebFilterChainProxy(securityConfig.securityWebFilterChain(ServerHttpSecurity.http())))
+                .build();
+        when(authService.getAll(any(), anyInt())).thenReturn(Flux.empty());
+        when(userImportService.importUsers(any(), anyBoolean(), anyBoolean())).thenReturn(Flux.empty());
+        when(clientCredentialsService.disable(any())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    @DisplayName("Forbid a user without ADMIN from listing users and managing clients")
+    void testUserIsForbidden() {
+        String token = jwtUtil.generateToken("ana", "USER");
+
+        listUsers(token).expectStatus().isForbidden();
+        webTestClient.post().uri("/auth/clients")
+                .headers(headers -> headers.setBearerAuth(token))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"batch-job\",\"scopes\":[\"users:read\"]}")
+                .exchange()
+                .expectStatus().isForbidden();
+        webTestClient.delete().uri("/auth/clients/batch-job")
+                .headers(headers -> headers.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isForbidden();
+
+        verifyNoInteractions(authService, clientCredentialsService);
+    }
+
+    @Test
+    @DisplayName("Let an ADMIN user and a users:read client list users")
+    void testAdminAndReadScopeMayListUsers() {
+        listUsers(jwtUtil.generateToken("ana", "ADMIN USER")).expectStatus().isOk();
+        listUsers(jwtUtil.generateClientToken("batch-job", "users:read")).expectStatus().isOk();
+
+        verify(authService, times(2)).getAll(null, 20);
+    }
+
+    @Test
+    @DisplayName("Let an ADMIN user manage clients")
+    void testAdminMayManageClients() {
+        webTestClient.delete().uri("/auth/clients/batch-job")
+                .headers(headers -> headers.setBearerAuth(jwtUtil.generateToken("ana", "ADMIN USER")))
+                .exchange()
+                .expectStatus().isNoContent();
+
+        verify(clientCredentialsService).disable("batch-job");
+    }
+
+    @Test
+    @DisplayName("Forbid a users:read client from importing users")
+    void testReadScopeMayNotImport() {
+        importUsers(jwtUtil.generateClientToken("batch-job", "users:read")).expectStatus().isForbidden();
+
+        verifyNoInteractions(userImportService);
+    }
+
+    @Test
+    @DisplayName("Let only an ADMIN user assign roles on import")
+    void testOnlyAdminAssignsRolesOnImport() {
+        importUsers(jwtUtil.generateClientToken("batch-job", "users:write")).expectStatus().isOk();
+        importUsers(jwtUtil.generateToken("ana", "ADMIN USER")).expectStatus().isOk();
+
+        verify(userImportService).importUsers(any(), eq(false), eq(false));
+        verify(userImportService).importUsers(any(), eq(false), eq(true));
+    }
+
+    @Test
+    @DisplayName("Require a token for paths that are not public")
+    void testAnonymousIsUnauthorized() {
+        webTestClient.get().uri("/auth")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectHeader().valueEquals(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        listUsers(expiredToken())
+                .expectStatus().isUnauthorized()
+                .expectHeader().valueEquals(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+    }
+
+    @Test
+    @DisplayName("Refresh with an expired access token still attached")
+    void testRefreshWithExpiredToken() {
+        when(authService.refresh("refresh-token")).thenReturn(Mono.just(new TokenPair("token", "next")));
+
+        webTestClient.post().uri("/auth/refresh")
+                .headers(headers -> headers.setBearerAuth(expiredToken()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"refreshToken\":\"refresh-token\"}")
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(authService).refresh("refresh-token");
+    }
+
+    private static String expiredToken() {
+        return new JwtUtil(JwtKeyRing.hmac(SECRET), Duration.ofMinutes(-1)).generateToken("ana", "ADMIN USER");
+    }
+
+    private WebTestClient.ResponseSpec listUsers(String token) {
+        return webTestClient.get().uri("/auth")
+                .headers(headers -> headers.setBearerAuth(token))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange();
+    }
+
+    private WebTestClient.ResponseSpec importUsers(String token) {
+        return webTestClient.post().uri("/auth/import")
+                .headers(headers -> headers.setBearerAuth(token))
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"username\":\"eva\",\"password\":\"password\",\"roles\":\"ADMIN\"}\n")
+                .exchange();
+    }
+}
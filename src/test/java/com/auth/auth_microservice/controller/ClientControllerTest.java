@@ -0,0 +1,58 @@
+package com.auth.auth_microservice.controller;
+
+import com.auth.auth_microservice.model.ClientToken;
+import com.auth.auth_microservice.service.ClientCredentialsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.BodyInserters;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClientControllerTest {
+    private final ClientCredentialsService clientCredentialsService = mock(ClientCredentialsService.class);
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToController(new ClientController(clientCredentialsService)).build();
+        when(clientCredentialsService.issueToken("batch-job", "s3cret", null))
+                .thenReturn(Mono.just(new ClientToken("token", "Bearer", 900, "users:read")));
+    }
+
+    @Test
+    @DisplayName("Accept client credentials through HTTP Basic authentication")
+    void testTokenWithBasicAuthentication() {
+        webTestClient.post().uri("/auth/token")
+                .headers(headers -> headers.setBasicAuth("batch-job", "s3cret"))
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .body(BodyInserters.fromFormData("grant_type", "client_credentials"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().cacheControl(CacheControl.noStore())
+                .expectBody()
+                .jsonPath("$.access_token").isEqualTo("token")
+                .jsonPath("$.token_type").isEqualTo("Bearer")
+                .jsonPath("$.expires_in").isEqualTo(900);
+    }
+
+    @Test
+    @DisplayName("Accept client credentials in the form")
+    void testTokenWithFormCredentials() {
+        webTestClient.post().uri("/auth/token")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .body(BodyInserters.fromFormData("grant_type", "client_credentials")
+                        .with("client_id", "batch-job")
+                        .with("client_secret", "s3cret"))
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(clientCredentialsService).issueToken("batch-job", "s3cret", null);
+    }
+}
@@ -0,0 +1,63 @@
+package com.auth.auth_microservice.controller;
+
+import com.auth.auth_microservice.security.JwtKey;
+import com.auth.auth_microservice.security.JwtKeyRing;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.security.KeyPair;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+class JwksControllerTest {
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        KeyPair pair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        JwtKeyRing keyRing = new JwtKeyRing(List.of(
+                new JwtKey("2026-10", SignatureAlgorithm.ES256, pair.getPrivate(), pair.getPublic(),
+                        Instant.now().minusSeconds(60), null),
+                JwtKeyRing.legacyHmacKey("mysecretkeymysecretkeymysecretkeymysecretkey")));
+        webTestClient = WebTestClient.bindToController(
+                new JwksController(keyRing, new ObjectMapper(), Duration.ofMinutes(5))).build();
+    }
+
+    @Test
+    @DisplayName("Publish only the public keys")
+    void testPublishPublicKeys() {
+        webTestClient.get().uri("/.well-known/jwks.json")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .expectBody()
+                .jsonPath("$.keys.length()").isEqualTo(1)
+                .jsonPath("$.keys[0].kid").isEqualTo("2026-10")
+                .jsonPath("$.keys[0].kty").isEqualTo("EC")
+                .jsonPath("$.keys[0].crv").isEqualTo("P-256");
+    }
+
+    @Test
+    @DisplayName("Answer not modified when the ETag matches")
+    void testNotModified() {
+        String etag = webTestClient.get().uri("/.well-known/jwks.json")
+                .exchange()
+                .returnResult(byte[].class)
+                .getResponseHeaders()
+                .getETag();
+
+        webTestClient.get().uri("/.well-known/jwks.json")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+}
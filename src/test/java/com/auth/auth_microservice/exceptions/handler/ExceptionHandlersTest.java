@@ -0,0 +1,56 @@
+package com.auth.auth_microservice.exceptions.handler;
+
+import com.auth.auth_microservice.exceptions.InvalidCredentials;
+import com.auth.auth_microservice.exceptions.TooManyAttempts;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExceptionHandlersTest {
+    private ExceptionHandlers exceptionHandlers;
+
+    @BeforeEach
+    void setUp() {
+        exceptionHandlers = new ExceptionHandlers(new ErrorBodies(new ObjectMapper()), 1, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Domain exceptions are stackless and share one pre-encoded body per message")
+    void testDomainException() {
+        InvalidCredentials exception = new InvalidCredentials("The credentials are incorrect");
+        assertEquals(0, exception.getStackTrace().length);
+
+        ResponseEntity<byte[]> first = exceptionHandlers.handleAuthException(exception).block();
+        ResponseEntity<byte[]> second = exceptionHandlers.handleAuthException(
+                new InvalidCredentials("The credentials are incorrect")).block();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, first.getStatusCode());
+        assertEquals("{\"code\":\"invalid_credentials\",\"message\":\"The credentials are incorrect\"}",
+                new String(first.getBody(), StandardCharsets.UTF_8));
+        assertSame(first.getBody(), second.getBody());
+    }
+
+    @Test
+    @DisplayName("Retry hints become a Retry-After header and unexpected errors get a generic body")
+    void testRetryAfterAndInternalError() {
+        ResponseEntity<byte[]> tooMany = exceptionHandlers.handleAuthException(
+                new TooManyAttempts("Too many login attempts, try again later", Duration.ofMillis(1500))).block();
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, tooMany.getStatusCode());
+        assertEquals("1", tooMany.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+        ResponseEntity<byte[]> internal = exceptionHandlers.handleExceptions(
+                new IllegalStateException("connection string with a password")).block();
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, internal.getStatusCode());
+        assertEquals("{\"code\":\"internal_error\",\"message\":\"Internal server error\"}",
+                new String(internal.getBody(), StandardCharsets.UTF_8));
+    }
+}
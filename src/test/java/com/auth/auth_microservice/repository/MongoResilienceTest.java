@@ -0,0 +1,160 @@
+package com.auth.auth_microservice.repository;
+
+import com.auth.auth_microservice.config.MongoResilienceProperties;
+import com.auth.auth_microservice.exceptions.ServiceUnavailable;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MongoResilienceTest {
+    private MongoResilienceProperties properties;
+    private MongoResilience mongoResilience;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MongoResilienceProperties();
+        properties.setTimeout(Duration.ofMillis(50));
+        properties.getCircuitBreaker().setMinimumNumberOfCalls(4);
+        properties.getCircuitBreaker().setSlidingWindowSize(4);
+        properties.getBulkhead().setMaxConcurrentCalls(1);
+        mongoResilience = new MongoResilience(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("A call slower than its timeout fails with ServiceUnavailable and a retry hint")
+    void testTimeout() {
+        StepVerifier.create(mongoResilience.mono("lookup-test", Mono.never()))
+                .expectErrorSatisfies(exception -> {
+                    assertEquals(ServiceUnavailable.class, exception.getClass());
+                    assertEquals(Duration.ofSeconds(1), ((ServiceUnavailable) exception).getRetryAfter());
+                })
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Repeated connectivity failures open the circuit and later calls fail without reaching Mongo")
+    void testCircuitOpens() {
+        AtomicInteger calls = new AtomicInteger();
+        Mono<String> failing = Mono.defer(() -> {
+            calls.incrementAndGet();
+            return Mono.error(new DataAccessResourceFailureException("connection refused"));
+        });
+        for (int i = 0; i < 4; i++) {
+            StepVerifier.create(mongoResilience.mono("find", failing))
+                    .expectError(DataAccessResourceFailureException.class)
+                    .verify();
+        }
+
+        StepVerifier.create(mongoResilience.mono("find", failing))
+                .expectErrorSatisfies(exception -> assertEquals(
+                        properties.getCircuitBreaker().getWaitDurationInOpenState(),
+                        ((ServiceUnavailable) exception).getRetryAfter()))
+                .verify();
+        assertEquals(CircuitBreaker.State.OPEN, mongoResilience.getState("find"));
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    @DisplayName("Business errors such as duplicate keys pass through and never open the circuit")
+    void testBusinessErrorsAreNotFailures() {
+        for (int i = 0; i < 8; i++) {
+            StepVerifier.create(mongoResilience.mono("insert", Mono.error(new DuplicateKeyException("duplicate"))))
+                    .expectError(DuplicateKeyException.class)
+                    .verify();
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, mongoResilience.getState("insert"));
+    }
+
+    @Test
+    @DisplayName("Calls beyond the bulkhead limit are rejected immediately")
+    void testBulkheadFull() {
+        properties.setTimeout(Duration.ofSeconds(5));
+        StepVerifier.create(mongoResilience.mono("find", Mono.never()))
+                .then(() -> StepVerifier.create(mongoResilience.mono("find", Mono.just("user")))
+                        .expectError(ServiceUnavailable.class)
+                        .verify(Duration.ofSeconds(1)))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Failures and busy permits of one operation leave the others untouched")
+    void testOperationsAreIsolated() {
+        Mono<String> failing = Mono.error(new DataAccessResourceFailureException("connection refused"));
+        for (int i = 0; i < 4; i++) {
+            StepVerifier.create(mongoResilience.mono("audit", failing))
+                    .expectError(DataAccessResourceFailureException.class)
+                    .verify();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, mongoResilience.getState("audit"));
+
+        properties.setTimeout(Duration.ofSeconds(5));
+        StepVerifier.create(mongoResilience.mono("import", Mono.never()))
+                .then(() -> StepVerifier.create(mongoResilience.mono("lookup", Mono.just("user")))
+                        .expectNext("user")
+                        .verifyComplete())
+                .thenCancel()
+                .verify();
+        assertEquals(CircuitBreaker.State.CLOSED, mongoResilience.getState("lookup"));
+    }
+
+    @Test
+    @DisplayName("A stream circuit closes again once its half-open probes complete")
+    void testStreamCircuitRecovers() throws InterruptedException {
+        properties.getCircuitBreaker().setWaitDurationInOpenState(Duration.ofMillis(50));
+        properties.getCircuitBreaker().setPermittedCallsInHalfOpenState(2);
+        mongoResilience = new MongoResilience(properties, new SimpleMeterRegistry());
+        Flux<String> failing = Flux.error(new DataAccessResourceFailureException("connection refused"));
+        for (int i = 0; i < 4; i++) {
+            StepVerifier.create(mongoResilience.stream("stream", failing))
+                    .expectError(DataAccessResourceFailureException.class)
+                    .verify();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, mongoResilience.getState("stream"));
+
+        Thread.sleep(200);
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(mongoResilience.stream("stream", Flux.just("user")))
+                    .expectNext("user")
+                    .verifyComplete();
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, mongoResilience.getState("stream"));
+    }
+
+    @Test
+    @DisplayName("Bulkhead rejections are not recorded as database outcomes")
+    void testBulkheadRejectionsAreIgnored() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        mongoResilience = new MongoResilience(properties, meterRegistry);
+        properties.setTimeout(Duration.ofSeconds(5));
+        StepVerifier.create(mongoResilience.mono("find", Mono.never()))
+                .then(() -> {
+                    for (int i = 0; i < 8; i++) {
+                        StepVerifier.create(mongoResilience.mono("find", Mono.just("user")))
+                                .expectError(ServiceUnavailable.class)
+                                .verify(Duration.ofSeconds(1));
+                    }
+                })
+                .thenCancel()
+                .verify();
+        double buffered = meterRegistry.get("resilience4j.circuitbreaker.buffered.calls")
+                .tag("name", "mongo-find")
+                .gauges().stream()
+                .mapToDouble(Gauge::value)
+                .sum();
+        assertEquals(0, buffered);
+    }
+}
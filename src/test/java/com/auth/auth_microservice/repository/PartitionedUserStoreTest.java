@@ -0,0 +1,120 @@
+package com.auth.auth_microservice.repository;
+
+import com.auth.auth_microservice.model.ImportResult;
+import com.auth.auth_microservice.model.User;
+import com.auth.auth_microservice.model.UserView;
+import com.mongodb.reactivestreams.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.net.InetSocketAddress;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedUserStoreTest {
+    private final List<MongoServer> servers = new ArrayList<>();
+    private final List<UserPartitions> opened = new ArrayList<>();
+    private MongoConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 3; i++) {
+            MongoServer server = new MongoServer(new MemoryBackend());
+            server.bind("localhost", 0);
+            servers.add(server);
+        }
+        converter = new ReactiveMongoTemplate(MongoClients.create(uri(0)), "auth").getConverter();
+    }
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(UserPartitions::close);
+        servers.forEach(MongoServer::shutdownNow);
+    }
+
+    @Test
+    @DisplayName("Users are stored on the partition owning their username and listed in id order across partitions")
+    void testRoutingAndMergedListing() {
+        UserPartitions partitions = partitions(3);
+        PartitionedUserStore userStore = new PartitionedUserStore(partitions, false);
+        List<User> users = users(30);
+
+        List<ImportResult> results = userStore.insertAllUnordered(users).collectList().block();
+
+        assertEquals(30, results.size());
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == ImportResult.Status.CREATED));
+        for (UserPartition partition : partitions.all()) {
+            List<User> stored = partition.getMongoTemplate().findAll(User.class).collectList().block();
+            assertFalse(stored.isEmpty(), "every partition should own some of 30 users");
+            assertTrue(stored.stream().allMatch(user -> partitions.route(user.getUsername()) == partition));
+        }
+        assertEquals("user07", userStore.findCredentialsByUsername("user07").block().getUsername());
+
+        List<String> page = userStore.findAfter("id-09", 5).map(UserView::getId).collectList().block();
+        assertEquals(List.of("id-10", "id-11", "id-12", "id-13", "id-14"), page);
+        List<String> all = userStore.findAllAfter("").map(UserView::getId).collectList().block();
+        assertEquals(users.stream().map(User::getId).collect(Collectors.toList()), all);
+    }
+
+    @Test
+    @DisplayName("After adding a partition the rebalancer moves only the users it now owns")
+    void testRebalanceAfterAddingPartition() {
+        new PartitionedUserStore(partitions(2), false).insertAllUnordered(users(60)).blockLast();
+        UserPartitions grown = partitions(3);
+        UserPartition added = grown.all().get(2);
+
+        Long moved = new UserRebalancer(grown, false, 7).rebalance().block();
+
+        List<User> onAdded = added.getMongoTemplate().findAll(User.class).collectList().block();
+        assertEquals(onAdded.size(), moved.intValue());
+        assertTrue(moved > 0 && moved < 60);
+        long total = 0;
+        for (UserPartition partition : grown.all()) {
+            List<User> stored = partition.getMongoTemplate().findAll(User.class).collectList().block();
+            assertTrue(stored.stream().allMatch(user -> grown.route(user.getUsername()) == partition));
+            total += stored.size();
+        }
+        assertEquals(60, total);
+        assertEquals(0L, new UserRebalancer(grown, false, 7).rebalance().block());
+    }
+
+    private UserPartitions partitions(int count) {
+        List<UserPartition> partitions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            partitions.add(UserPartition.connect("users-" + i, uri(i), converter));
+        }
+        UserPartitions userPartitions = new UserPartitions(partitions, 160);
+        opened.add(userPartitions);
+        return userPartitions;
+    }
+
+    private String uri(int server) {
+        InetSocketAddress address = servers.get(server).getLocalAddress();
+        return "mongodb://localhost:" + address.getPort() + "/auth";
+    }
+
+    private static List<User> users(int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String suffix = String.format("%02d", i);
+            users.add(User.builder()
+                    .id("id-" + suffix)
+                    .username("user" + suffix)
+                    .password("{bcrypt}hash")
+                    .email("user" + suffix + "@example.com")
+                    .dateBorn(LocalDate.of(1990, 1, 1))
+                    .build());
+        }
+        return users;
+    }
+}
@@ -0,0 +1,67 @@
+package com.auth.auth_microservice.repository;
+
+import com.auth.auth_microservice.config.MongoResilienceProperties;
+import com.auth.auth_microservice.metrics.AuthMetrics;
+import com.auth.auth_microservice.model.UserCredentials;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCredentialsCacheTest {
+
+    @Mock
+    private UserStore userStore;
+
+    private UserCredentialsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserCredentialsCache(userStore, new AuthMetrics(new SimpleMeterRegistry()),
+                new MongoResilience(new MongoResilienceProperties(), new SimpleMeterRegistry()), 100, Duration.ofMinutes(5), Duration.ofSeconds(10));
+    }
+
+    @Test
+    @DisplayName("Repeated lookups of known and unknown usernames query Mongo once")
+    void testCachesPositiveAndNegativeLookups() {
+        UserCredentials credentials = new UserCredentials("testuser", "encodedPassword", "USER");
+        when(userStore.findCredentialsByUsername("testuser")).thenReturn(Mono.just(credentials));
+        when(userStore.findCredentialsByUsername("nobody")).thenReturn(Mono.empty());
+
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(cache.findByUsername("testuser"))
+                    .expectNext(credentials)
+                    .verifyComplete();
+            StepVerifier.create(cache.findByUsername("nobody"))
+                    .verifyComplete();
+        }
+
+        verify(userStore, times(1)).findCredentialsByUsername("testuser");
+        verify(userStore, times(1)).findCredentialsByUsername("nobody");
+    }
+
+    @Test
+    @DisplayName("An invalidated username is loaded again")
+    void testInvalidate() {
+        UserCredentials credentials = new UserCredentials("newuser", "encodedPassword", "USER");
+        when(userStore.findCredentialsByUsername("newuser"))
+                .thenReturn(Mono.empty(), Mono.just(credentials));
+
+        StepVerifier.create(cache.findByUsername("newuser"))
+                .verifyComplete();
+        cache.invalidate("newuser");
+        StepVerifier.create(cache.findByUsername("newuser"))
+                .expectNext(credentials)
+                .verifyComplete();
+    }
+}
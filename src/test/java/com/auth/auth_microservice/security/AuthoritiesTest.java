@@ -0,0 +1,26 @@
+package com.auth.auth_microservice.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthoritiesTest {
+
+    @Test
+    @DisplayName("Normalize roles to one sorted, upper-cased string")
+    void testNormalizeRoles() {
+        assertEquals("ADMIN USER", Authorities.normalizeRoles(" user  admin USER "));
+        assertEquals(Authorities.DEFAULT_ROLES, Authorities.normalizeRoles(null));
+        assertEquals(Authorities.DEFAULT_ROLES, Authorities.normalizeRoles("  "));
+    }
+
+    @Test
+    @DisplayName("Share one authority list per roles or scope string")
+    void testInterning() {
+        assertSame(Authorities.ofRoles("ADMIN USER"), Authorities.ofRoles(new String("ADMIN USER")));
+        assertSame(Authorities.ofRoles(null), Authorities.ofRoles(Authorities.DEFAULT_ROLES));
+        assertEquals("SCOPE_users:read", Authorities.ofScopes("users:read").get(0).getAuthority());
+        assertThrows(UnsupportedOperationException.class, () -> Authorities.ofRoles("USER").clear());
+    }
+}
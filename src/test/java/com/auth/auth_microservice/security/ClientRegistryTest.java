@@ -0,0 +1,125 @@
+package com.auth.auth_microservice.security;
+
+import com.auth.auth_microservice.config.MongoResilienceProperties;
+import com.auth.auth_microservice.exceptions.InvalidCredentials;
+import com.auth.auth_microservice.model.ServiceClient;
+import com.auth.auth_microservice.repository.MongoResilience;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+class ClientRegistryTest {
+    private static final String PEPPER = "pepperpepperpepperpepperpepperpepper";
+
+    private MongoServer server;
+    private MongoClient client;
+    private ReactiveMongoTemplate mongoTemplate;
+    private ClientSecretHasher secretHasher;
+    private ClientRegistry clientRegistry;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        server.bind("localhost", 0);
+        client = MongoClients.create("mongodb://localhost:" + server.getLocalAddress().getPort());
+        mongoTemplate = new ReactiveMongoTemplate(client, "auth");
+        secretHasher = new ClientSecretHasher(PEPPER);
+        clientRegistry = newRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Authenticate a registered client and reject a wrong secret")
+    void testAuthenticate() {
+        String secret = secretHasher.generateSecret();
+        StepVerifier.create(clientRegistry.register(client("batch-job", secret, true)))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        StepVerifier.create(clientRegistry.authenticate("batch-job", secret))
+                .expectNextMatches(found -> found.getScopes().equals(List.of("users:read")))
+                .verifyComplete();
+        StepVerifier.create(clientRegistry.authenticate("batch-job", secretHasher.generateSecret()))
+                .expectError(InvalidCredentials.class)
+                .verify();
+        StepVerifier.create(clientRegistry.authenticate("unknown", secret))
+                .expectError(InvalidCredentials.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Pick up clients registered and disabled by other instances")
+    void testSynchronize() {
+        String secret = secretHasher.generateSecret();
+        mongoTemplate.insert(client("batch-job", secret, true)).block();
+
+        StepVerifier.create(clientRegistry.authenticate("batch-job", secret))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is("batch-job")),
+                Update.update("enabled", false).set("updatedAt", Instant.now()), ServiceClient.class).block();
+        StepVerifier.create(clientRegistry.synchronize())
+                .verifyComplete();
+
+        StepVerifier.create(clientRegistry.authenticate("batch-job", secret))
+                .expectError(InvalidCredentials.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Once synchronized, reject unknown clients without reading Mongo until the next poll")
+    void testTrustIndexAfterSynchronize() {
+        StepVerifier.create(clientRegistry.synchronize())
+                .verifyComplete();
+        String secret = secretHasher.generateSecret();
+        mongoTemplate.insert(client("batch-job", secret, true)).block();
+
+        StepVerifier.create(clientRegistry.authenticate("batch-job", secret))
+                .expectError(InvalidCredentials.class)
+                .verify();
+
+        StepVerifier.create(clientRegistry.synchronize())
+                .verifyComplete();
+        StepVerifier.create(clientRegistry.authenticate("batch-job", secret))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    private ClientRegistry newRegistry() {
+        return new ClientRegistry(mongoTemplate,
+                new MongoResilience(new MongoResilienceProperties(), new SimpleMeterRegistry()),
+                secretHasher, Duration.ofSeconds(10));
+    }
+
+    private ServiceClient client(String id, String secret, boolean enabled) {
+        return ServiceClient.builder()
+                .id(id)
+                .name(id)
+                .secretHash(secretHasher.hash(secret))
+                .scopes(List.of("users:read"))
+                .enabled(enabled)
+                .updatedAt(Instant.now())
+                .build();
+    }
+}
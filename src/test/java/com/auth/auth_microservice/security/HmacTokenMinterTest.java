@@ -0,0 +1,110 @@
+package com.auth.auth_microservice.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HmacTokenMinterTest {
+    private static final String SECRET = "mysecretkeymysecretkeymysecretkeymysecretkey";
+    private static final String ID = "3f1c2a4e-0000-4000-8000-000000000001";
+    private static final long ISSUED_AT = 1_700_000_000L;
+    private static final long EXPIRES_AT = ISSUED_AT + 900;
+
+    @Test
+    @DisplayName("Mint the same bytes as the jjwt builder for the legacy key")
+    void testMatchesJjwt() {
+        JwtKey key = JwtKeyRing.legacyHmacKey(SECRET);
+        HmacTokenMinter minter = new HmacTokenMinter(key);
+
+        for (String subject : new String[]{"USER_001", "a\"quoted\\name", "tab\tnew\nline\u0001", "josé 漢字 😀",
+                "user\uD83D\uDE00", "lone\uD83D", "lone\uDE00"}) {
+            assertEquals(jjwt(key, subject), minter.mint(ID, subject, null, null,
+                    ISSUED_AT, EXPIRES_AT), subject);
+        }
+    }
+
+    @Test
+    @DisplayName("Escape the surrogates of a non-BMP character like Jackson does")
+    void testEscapesSurrogatePairs() {
+        String token = new HmacTokenMinter(JwtKeyRing.legacyHmacKey(SECRET))
+                .mint(ID, "user\uD83D\uDE00", null, null, ISSUED_AT, EXPIRES_AT);
+
+        String payload = new String(Base64.getUrlDecoder().decode(token.split("\\.")[1]), StandardCharsets.UTF_8);
+        assertTrue(payload.contains("\"sub\":\"user\\uD83D\\uDE00\""), payload);
+    }
+
+    @Test
+    @DisplayName("Mint the same bytes as the jjwt builder for rotated HMAC keys with a kid")
+    void testMatchesJjwtWithKeyId() {
+        for (SignatureAlgorithm algorithm : new SignatureAlgorithm[]{SignatureAlgorithm.HS256,
+                SignatureAlgorithm.HS384, SignatureAlgorithm.HS512}) {
+            Key secret = Keys.secretKeyFor(algorithm);
+            JwtKey key = new JwtKey("2024-01", algorithm, secret, secret, null, null);
+
+            assertEquals(jjwt(key, "USER_001"), new HmacTokenMinter(key)
+                    .mint(ID, "USER_001", null, null, ISSUED_AT, EXPIRES_AT));
+        }
+    }
+
+    @Test
+    @DisplayName("Mint the same bytes as the jjwt builder with an extra string claim")
+    void testMatchesJjwtWithClaim() {
+        JwtKey key = JwtKeyRing.legacyHmacKey(SECRET);
+
+        assertEquals(jjwt(key, "batch-job", "users:read users:write"), new HmacTokenMinter(key)
+                .mint(ID, "batch-job", "scope", "users:read users:write", ISSUED_AT, EXPIRES_AT));
+    }
+
+    @Test
+    @DisplayName("Minted tokens carry a random UUID id and parse with jjwt")
+    void testRandomIdParses() {
+        JwtKey key = JwtKeyRing.legacyHmacKey(SECRET);
+        HmacTokenMinter minter = new HmacTokenMinter(key);
+        long now = System.currentTimeMillis();
+
+        String first = minter.mint("USER_001", now, now + 60_000);
+        String second = minter.mint("USER_001", now, now + 60_000);
+        Claims claims = Jwts.parserBuilder().setSigningKey(key.getVerificationKey()).build()
+                .parseClaimsJws(first).getBody();
+
+        assertEquals("USER_001", claims.getSubject());
+        assertEquals(4, UUID.fromString(claims.getId()).version());
+        assertEquals((now + 60_000) / 1000, claims.getExpiration().getTime() / 1000);
+        assertNotEquals(claims.getId(), Jwts.parserBuilder().setSigningKey(key.getVerificationKey()).build()
+                .parseClaimsJws(second).getBody().getId());
+    }
+
+    private static String jjwt(JwtKey key, String subject) {
+        return jjwt(key, subject, null);
+    }
+
+    private static String jjwt(JwtKey key, String subject, String scope) {
+        JwtBuilder builder = Jwts.builder();
+        if (key.getKid() != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, key.getKid());
+        }
+        builder.setId(ID)
+                .setSubject(subject)
+                .setIssuedAt(new Date(ISSUED_AT * 1000))
+                .setExpiration(new Date(EXPIRES_AT * 1000));
+        if (scope != null) {
+            builder.claim("scope", scope);
+        }
+        return builder
+                .signWith(key.getSigningKey(), key.getAlgorithm())
+                .compact();
+    }
+}
@@ -1,5 +1,7 @@
 package com.auth.auth_microservice.security;
 
+import com.auth.auth_microservice.metrics.AuthMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -7,28 +9,47 @@ import org.mockito.Mock;
 import org.springframework.http.HttpHeaders;
 import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
 import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Mockito.*;
 
 class JwtAuthenticationFilterTest {
+    private static final String SECRET = "mysecretkeymysecretkeymysecretkeymysecretkey";
 
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    private final JwtUtil tokens = new JwtUtil(SECRET);
+
     @Mock
     private JwtUtil jwtUtil;
 
     @Mock
     private WebFilterChain filterChain;
 
+    @Mock
+    private TokenRevocationList revocationList;
+
     @BeforeEach
     void setUp() {
         jwtUtil = mock(JwtUtil.class);
         filterChain = mock(WebFilterChain.class);
-        jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtUtil);
+        revocationList = mock(TokenRevocationList.class);
+        jwtAuthenticationFilter = new JwtAuthenticationFilter(
+                new TokenVerifier(jwtUtil, new TokenPrecheck(JwtKeyRing.hmac(SECRET), 4096),
+                        new AuthMetrics(new SimpleMeterRegistry()), revocationList, 100));
     }
 
     @Test
@@ -43,14 +64,13 @@ class JwtAuthenticationFilterTest {
         StepVerifier.create(jwtAuthenticationFilter.filter(exchange, filterChain))
                 .verifyComplete();
 
-        verify(jwtUtil, never()).extractUsername(anyString());
-        verify(jwtUtil, never()).isTokenExpired(anyString());
+        verify(jwtUtil, never()).verify(anyString());
     }
 
     @Test
     @DisplayName("Correct authenticate when the token is valid")
     void testFilterWithValidToken() {
-        String validToken = "valid.jwt.token";
+        String validToken = tokens.generateToken("testUser");
         String username = "testUser";
 
         ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
@@ -58,34 +78,123 @@ class JwtAuthenticationFilterTest {
                 .header(HttpHeaders.AUTHORIZATION, "Bearer " + validToken)
                 .build());
 
-        when(jwtUtil.extractUsername(validToken)).thenReturn(username);
-        when(jwtUtil.isTokenExpired(validToken)).thenReturn(false);
+        when(jwtUtil.verify(validToken))
+                .thenReturn(new VerifiedToken("jti-1", username, Instant.now().plusSeconds(60)));
         when(filterChain.filter(exchange)).thenReturn(Mono.empty());
 
         StepVerifier.create(jwtAuthenticationFilter.filter(exchange, filterChain))
                 .verifyComplete();
 
-        verify(jwtUtil, times(1)).extractUsername(validToken);
-        verify(jwtUtil, times(1)).isTokenExpired(validToken);
+        verify(jwtUtil, times(1)).verify(validToken);
     }
 
     @Test
-    @DisplayName("Not authenticate when the token is invalid")
-    void testFilterWithInvalidToken() {
-        String invalidToken = "invalid.jwt.token";
+    @DisplayName("Verify the same token only once")
+    void testFilterReusesVerifiedToken() {
+        String validToken = tokens.generateToken("testUser");
 
         ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
                 .get("/")
-                .header(HttpHeaders.AUTHORIZATION, "Bearer " + invalidToken)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + validToken)
                 .build());
 
-        when(jwtUtil.extractUsername(invalidToken)).thenReturn(null);
-        when(jwtUtil.isTokenExpired(invalidToken)).thenReturn(true);
+        when(jwtUtil.verify(validToken))
+                .thenReturn(new VerifiedToken("jti-1", "testUser", Instant.now().plusSeconds(60)));
         when(filterChain.filter(exchange)).thenReturn(Mono.empty());
 
         StepVerifier.create(jwtAuthenticationFilter.filter(exchange, filterChain))
                 .verifyComplete();
+        StepVerifier.create(jwtAuthenticationFilter.filter(exchange, filterChain))
+                .verifyComplete();
+
+        verify(jwtUtil, times(1)).verify(validToken);
+    }
+
+    @Test
+    @DisplayName("Continue anonymously when the token is invalid")
+    void testFilterWithInvalidToken() {
+        String invalidToken = tokens.generateToken("testUser");
+
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+                .get("/")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + invalidToken)
+                .build());
+
+        when(jwtUtil.verify(invalidToken))
+                .thenReturn(new VerifiedToken("jti-1", null, Instant.now().minusSeconds(60)));
+
+        StepVerifier.create(jwtAuthenticationFilter.filter(exchange, anonymousChain()))
+                .verifyComplete();
+
+        verify(jwtUtil, times(1)).verify(invalidToken);
+        assertTrue(JwtAuthenticationFilter.hasInvalidToken(exchange));
+    }
+
+    @Test
+    @DisplayName("Continue anonymously with a malformed token without parsing it")
+    void testFilterWithMalformedToken() {
+        String token = tokens.generateToken("testUser");
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+                .get("/")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token.substring(0, token.length() - 2))
+                .build());
+
+        StepVerifier.create(jwtAuthenticationFilter.filter(exchange, anonymousChain()))
+                .verifyComplete();
+
+        verify(jwtUtil, never()).verify(anyString());
+        assertTrue(JwtAuthenticationFilter.hasInvalidToken(exchange));
+    }
+
+    @Test
+    @DisplayName("Continue anonymously when the token was revoked")
+    void testFilterWithRevokedToken() {
+        String revokedToken = tokens.generateToken("testUser");
+
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+                .get("/")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + revokedToken)
+                .build());
+
+        when(jwtUtil.verify(revokedToken))
+                .thenReturn(new VerifiedToken("jti-2", "testUser", Instant.now().plusSeconds(60)));
+        when(revocationList.isRevoked("jti-2")).thenReturn(true);
+
+        StepVerifier.create(jwtAuthenticationFilter.filter(exchange, anonymousChain()))
+                .verifyComplete();
+
+        assertTrue(JwtAuthenticationFilter.hasInvalidToken(exchange));
+    }
+
+    @Test
+    @DisplayName("Authenticate a client token as a ClientPrincipal with scope authorities")
+    void testFilterWithClientToken() {
+        String clientToken = tokens.generateClientToken("batch-job", "users:read users:write");
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+                .get("/")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + clientToken)
+                .build());
+        jwtAuthenticationFilter = new JwtAuthenticationFilter(
+                new TokenVerifier(tokens, new TokenPrecheck(JwtKeyRing.hmac(SECRET), 4096),
+                        new AuthMetrics(new SimpleMeterRegistry()), revocationList, 100));
+        WebFilterChain chain = filteredExchange -> ReactiveSecurityContextHolder.getContext()
+                .doOnNext(context -> {
+                    Authentication authentication = context.getAuthentication();
+                    assertEquals(new ClientPrincipal("batch-job", List.of("users:read", "users:write")),
+                            authentication.getPrincipal());
+                    assertEquals("batch-job", authentication.getName());
+                    assertEquals(List.of("SCOPE_users:read", "SCOPE_users:write"), authentication.getAuthorities()
+                            .stream().map(GrantedAuthority::getAuthority).collect(Collectors.toList()));
+                })
+                .then();
+
+        StepVerifier.create(jwtAuthenticationFilter.filter(exchange, chain))
+                .verifyComplete();
+    }
 
-        verify(jwtUtil, times(1)).extractUsername(invalidToken);
+    private static WebFilterChain anonymousChain() {
+        return filteredExchange -> ReactiveSecurityContextHolder.getContext()
+                .doOnNext(context -> fail("Expected no security context"))
+                .then();
     }
-}
\ No newline at end of file
+}
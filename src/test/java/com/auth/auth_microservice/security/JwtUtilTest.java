@@ -1,15 +1,25 @@
 package com.auth.auth_microservice.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.GrantedAuthority;
 
+import java.security.KeyPair;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.List;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -86,4 +96,98 @@ class JwtUtilTest {
 
         assertEquals(username, extractedClaim);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Verify a token in a single parse")
+    void testVerify() {
+        String username = "USER_001";
+        String token = jwtUtil.generateToken(username);
+
+        VerifiedToken verifiedToken = jwtUtil.verify(token);
+
+        assertEquals(username, verifiedToken.getSubject());
+        assertFalse(verifiedToken.isExpired(Instant.now()));
+    }
+
+    @Test
+    @DisplayName("Sign with the newest active key and keep verifying rotated keys")
+    void testKeyRotation() {
+        KeyPair oldPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        KeyPair newPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        Instant now = Instant.now();
+        JwtKey oldKey = new JwtKey("old", SignatureAlgorithm.ES256, oldPair.getPrivate(), oldPair.getPublic(),
+                now.minusSeconds(3600), null);
+        JwtKey newKey = new JwtKey("new", SignatureAlgorithm.ES256, newPair.getPrivate(), newPair.getPublic(),
+                now.minusSeconds(60), null);
+        JwtKey nextKey = new JwtKey("next", SignatureAlgorithm.ES256, newPair.getPrivate(), newPair.getPublic(),
+                now.plusSeconds(3600), null);
+        JwtUtil rotatingJwtUtil = new JwtUtil(new JwtKeyRing(List.of(oldKey, newKey, nextKey)),
+                Duration.ofMinutes(15));
+
+        String token = rotatingJwtUtil.generateToken("USER_001");
+        String oldToken = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, "old")
+                .setSubject("USER_002")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(oldPair.getPrivate(), SignatureAlgorithm.ES256)
+                .compact();
+
+        assertEquals("new", Jwts.parserBuilder().setSigningKey(newPair.getPublic()).build()
+                .parseClaimsJws(token).getHeader().getKeyId());
+        assertEquals("USER_001", rotatingJwtUtil.verify(token).getSubject());
+        assertEquals("USER_002", rotatingJwtUtil.verify(oldToken).getSubject());
+    }
+
+    @Test
+    @DisplayName("Switch to the next HMAC key once it becomes active")
+    void testSwitchToScheduledKey() throws InterruptedException {
+        Instant now = Instant.now();
+        JwtKey currentKey = new JwtKey("current", SignatureAlgorithm.HS256, jwtUtil.key, jwtUtil.key,
+                now.minusSeconds(60), null);
+        JwtKey nextKey = new JwtKey("next", SignatureAlgorithm.HS256, jwtUtil.key, jwtUtil.key,
+                now.plusMillis(200), null);
+        JwtUtil rotatingJwtUtil = new JwtUtil(new JwtKeyRing(List.of(currentKey, nextKey)), Duration.ofMinutes(15));
+
+        String before = rotatingJwtUtil.generateToken("USER_001");
+        Thread.sleep(300);
+        String after = rotatingJwtUtil.generateToken("USER_001");
+
+        assertEquals("current", Jwts.parserBuilder().setSigningKey(jwtUtil.key).build()
+                .parseClaimsJws(before).getHeader().getKeyId());
+        assertEquals("next", Jwts.parserBuilder().setSigningKey(jwtUtil.key).build()
+                .parseClaimsJws(after).getHeader().getKeyId());
+        assertEquals("USER_001", rotatingJwtUtil.verify(after).getSubject());
+    }
+
+    @Test
+    @DisplayName("Reject a token signed with an unknown key")
+    void testUnknownKey() {
+        KeyPair pair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        String token = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, "unknown")
+                .setSubject("USER_001")
+                .signWith(pair.getPrivate(), SignatureAlgorithm.ES256)
+                .compact();
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(token));
+    }
+
+    @Test
+    @DisplayName("Decode the roles claim into shared authorities")
+    void testRolesClaim() {
+        VerifiedToken admin = jwtUtil.verify(jwtUtil.generateToken("USER_001", "ADMIN USER"));
+        VerifiedToken other = jwtUtil.verify(jwtUtil.generateToken("USER_002", "ADMIN USER"));
+        VerifiedToken legacy = jwtUtil.verify(jwtUtil.generateToken("USER_003"));
+
+        assertFalse(admin.isClient());
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"), names(admin));
+        assertSame(admin.getAuthorities(), other.getAuthorities());
+        assertEquals(List.of("ROLE_USER"), names(legacy));
+    }
+
+    private static List<String> names(VerifiedToken token) {
+        return token.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,87 @@
+package com.auth.auth_microservice.security;
+
+import com.auth.auth_microservice.exceptions.TooManyAttempts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginAttemptGuardTest {
+
+    private LoginAttemptGuard loginAttemptGuard;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        loginAttemptGuard = new LoginAttemptGuard(2, Duration.ofMinutes(1), 3, Duration.ofMinutes(1),
+                2, Duration.ofSeconds(30), Duration.ofMinutes(15), 1000, 1000, 1000, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Reject an address once its bucket is empty")
+    void testAddressBucketExhausted() {
+        assertTrue(loginAttemptGuard.admitAddress("10.0.0.1").isZero());
+        assertTrue(loginAttemptGuard.admitAddress("10.0.0.1").isZero());
+
+        Duration retryAfter = loginAttemptGuard.admitAddress("10.0.0.1");
+
+        assertFalse(retryAfter.isZero());
+        assertTrue(loginAttemptGuard.admitAddress("10.0.0.2").isZero());
+        assertEquals(1.0, meterRegistry.get("auth.ratelimit")
+                .tag("scope", "address").tag("result", "rejected").counter().count());
+    }
+
+    @Test
+    @DisplayName("Reject a username once its bucket is empty")
+    void testUsernameBucketExhausted() {
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(loginAttemptGuard.admitUsername("testuser")).verifyComplete();
+        }
+
+        StepVerifier.create(loginAttemptGuard.admitUsername("testuser"))
+                .expectError(TooManyAttempts.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Lock a username out after repeated failures")
+    void testLockoutAfterFailures() {
+        loginAttemptGuard.recordFailure("testuser");
+        StepVerifier.create(loginAttemptGuard.admitUsername("testuser")).verifyComplete();
+
+        loginAttemptGuard.recordFailure("testuser");
+
+        StepVerifier.create(loginAttemptGuard.admitUsername("testuser"))
+                .expectErrorSatisfies(error -> {
+                    assertTrue(error instanceof TooManyAttempts);
+                    assertTrue(((TooManyAttempts) error).getRetryAfter().getSeconds() > 0);
+                })
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Clear the failures after a successful login")
+    void testSuccessResetsFailures() {
+        loginAttemptGuard.recordFailure("testuser");
+        loginAttemptGuard.recordSuccess("testuser");
+        loginAttemptGuard.recordFailure("testuser");
+
+        StepVerifier.create(loginAttemptGuard.admitUsername("testuser")).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Refuse a limit below one at startup")
+    void testCapacityMustBePositive() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new LoginAttemptGuard(0, Duration.ofMinutes(1), 3, Duration.ofMinutes(1),
+                        2, Duration.ofSeconds(30), Duration.ofMinutes(15), 1000, 1000, 1000, meterRegistry));
+
+        assertEquals("auth.rate-limit.address.capacity must be at least 1, was 0", exception.getMessage());
+    }
+}
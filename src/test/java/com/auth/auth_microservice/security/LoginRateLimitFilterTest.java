@@ -0,0 +1,66 @@
+package com.auth.auth_microservice.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimitFilterTest {
+    private final LoginAttemptGuard loginAttemptGuard = new LoginAttemptGuard(1, Duration.ofMinutes(1), 10,
+            Duration.ofMinutes(1), 5, Duration.ofSeconds(30), Duration.ofMinutes(15), 1000, 1000, 1000,
+            new SimpleMeterRegistry());
+    private final WebFilterChain chain = exchange -> Mono.empty();
+
+    @Test
+    @DisplayName("Limit logins per forwarded client address rather than per gateway")
+    void testForwardedAddress() {
+        LoginRateLimitFilter filter = new LoginRateLimitFilter(loginAttemptGuard, "X-Forwarded-For");
+
+        assertNull(login(filter, "1.2.3.4, 10.0.0.1"));
+        assertNull(login(filter, "10.0.0.2"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, login(filter, "6.6.6.6, 10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("Limit logins per connection address without a configured header")
+    void testRemoteAddress() {
+        LoginRateLimitFilter filter = new LoginRateLimitFilter(loginAttemptGuard, "");
+
+        assertNull(login(filter, "10.0.0.1"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, login(filter, "10.0.0.2"));
+    }
+
+    @Test
+    @DisplayName("Limit client-credentials token requests from the same bucket as logins")
+    void testTokenRequests() {
+        LoginRateLimitFilter filter = new LoginRateLimitFilter(loginAttemptGuard, "");
+
+        assertNull(login(filter, null));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, request(filter, "/auth/token", null));
+    }
+
+    private HttpStatus login(LoginRateLimitFilter filter, String forwardedFor) {
+        return request(filter, "/auth/login", forwardedFor);
+    }
+
+    private HttpStatus request(LoginRateLimitFilter filter, String path, String forwardedFor) {
+        MockServerHttpRequest.BodyBuilder request = MockServerHttpRequest.post(path)
+                .remoteAddress(new InetSocketAddress("192.168.0.1", 40000));
+        if (forwardedFor != null) {
+            request.header("X-Forwarded-For", forwardedFor);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request.build());
+        StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+        return exchange.getResponse().getStatusCode();
+    }
+}
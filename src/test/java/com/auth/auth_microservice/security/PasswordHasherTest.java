@@ -0,0 +1,59 @@
+package com.auth.auth_microservice.security;
+
+import com.auth.auth_microservice.exceptions.ServiceUnavailable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PasswordHasherTest {
+
+    private PasswordHasher passwordHasher;
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.destroy();
+    }
+
+    @Test
+    @DisplayName("Hash the password outside of the caller thread")
+    void testEncodeOnHashingScheduler() {
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode("password")).thenAnswer(invocation -> Thread.currentThread().getName());
+        passwordHasher = new PasswordHasher(passwordEncoder, 1, 4, new SimpleMeterRegistry());
+
+        StepVerifier.create(passwordHasher.encode("password"))
+                .assertNext(threadName -> assertTrue(threadName.startsWith("password-hash")))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Reject hashing when the queue is full")
+    void testRejectWhenQueueIsFull() {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.matches(any(), any())).thenAnswer(invocation -> {
+            release.await();
+            return true;
+        });
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        passwordHasher = new PasswordHasher(passwordEncoder, 1, 0, meterRegistry);
+
+        passwordHasher.matches("password", "hash").subscribe();
+
+        StepVerifier.create(passwordHasher.matches("password", "hash"))
+                .expectError(ServiceUnavailable.class)
+                .verify();
+        assertEquals(1.0, meterRegistry.get("auth.password.hash.rejected").counter().count());
+
+        release.countDown();
+    }
+}
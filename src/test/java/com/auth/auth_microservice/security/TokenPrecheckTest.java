@@ -0,0 +1,73 @@
+package com.auth.auth_microservice.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenPrecheckTest {
+
+    @Test
+    @DisplayName("Accept well formed tokens of every key in the ring")
+    void testAcceptsKnownKeys() {
+        KeyPair ecPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        KeyPair rsaPair = Keys.keyPairFor(SignatureAlgorithm.RS256);
+        JwtKeyRing keyRing = new JwtKeyRing(List.of(
+                new JwtKey("ec", SignatureAlgorithm.ES256, ecPair.getPrivate(), ecPair.getPublic(), null, null),
+                new JwtKey("rsa", SignatureAlgorithm.RS256, rsaPair.getPrivate(), rsaPair.getPublic(), null, null)));
+        TokenPrecheck precheck = new TokenPrecheck(keyRing, 4096);
+
+        String ecToken = new JwtUtil(keyRing, Duration.ofMinutes(15)).generateToken("USER_001");
+        String rsaToken = Jwts.builder()
+                .setHeaderParam("kid", "rsa")
+                .setSubject("USER_001")
+                .signWith(rsaPair.getPrivate(), SignatureAlgorithm.RS256)
+                .compact();
+
+        assertTrue(precheck.isWellFormed(ecToken, 0));
+        assertTrue(precheck.isWellFormed(rsaToken, 0));
+        assertTrue(precheck.isWellFormed("Bearer " + ecToken, 7));
+    }
+
+    @Test
+    @DisplayName("Reject garbage, unknown keys and truncated signatures")
+    void testRejectsMalformedTokens() {
+        String secret = "mysecretkeymysecretkeymysecretkeymysecretkey";
+        TokenPrecheck precheck = new TokenPrecheck(JwtKeyRing.hmac(secret), 4096);
+        String token = new JwtUtil(secret).generateToken("USER_001");
+        String unknownKid = Jwts.builder()
+                .setHeaderParam("kid", "unknown")
+                .setSubject("USER_001")
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+        String wrongAlgorithm = Jwts.builder()
+                .setSubject("USER_001")
+                .signWith(Keys.secretKeyFor(SignatureAlgorithm.HS384), SignatureAlgorithm.HS384)
+                .compact();
+
+        assertTrue(precheck.isWellFormed(token, 0));
+        assertFalse(precheck.isWellFormed("", 0));
+        assertFalse(precheck.isWellFormed("not-a-token", 0));
+        assertFalse(precheck.isWellFormed("a.b.c.d", 0));
+        assertFalse(precheck.isWellFormed(token + "=", 0));
+        assertFalse(precheck.isWellFormed(token.substring(0, token.length() - 1), 0));
+        assertFalse(precheck.isWellFormed(unknownKid, 0));
+        assertFalse(precheck.isWellFormed(wrongAlgorithm, 0));
+    }
+
+    @Test
+    @DisplayName("Read string members of a JOSE header")
+    void testStringField() {
+        assertEquals("ES256", TokenPrecheck.stringField("{\"kid\":\"k1\",\"alg\":\"ES256\"}", "alg"));
+        assertEquals("k1", TokenPrecheck.stringField("{ \"kid\" : \"k1\" }", "kid"));
+        assertNull(TokenPrecheck.stringField("{\"alg\":\"HS256\"}", "kid"));
+        assertNull(TokenPrecheck.stringField("{\"kid\":\"a\\\"b\"}", "kid"));
+    }
+}
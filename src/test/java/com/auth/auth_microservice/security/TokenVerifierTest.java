@@ -0,0 +1,46 @@
+package com.auth.auth_microservice.security;
+
+import com.auth.auth_microservice.metrics.AuthMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TokenVerifierTest {
+    private static final String SECRET = "mysecretkeymysecretkeymysecretkeymysecretkey";
+
+    private final JwtUtil jwtUtil = mock(JwtUtil.class);
+    private final TokenVerifier tokenVerifier = new TokenVerifier(jwtUtil,
+            new TokenPrecheck(JwtKeyRing.hmac(SECRET), 4096), new AuthMetrics(new SimpleMeterRegistry()),
+            mock(TokenRevocationList.class), 100);
+
+    @Test
+    @DisplayName("Share one cache entry between a bare token and its Authorization header")
+    void testBearerAndBareTokenShareEntry() {
+        String token = new JwtUtil(SECRET).generateToken("testUser");
+        VerifiedToken verified = new VerifiedToken("jti-1", "testUser", Instant.now().plusSeconds(60));
+        when(jwtUtil.verify(token)).thenReturn(verified);
+
+        assertSame(verified, tokenVerifier.verifyBearer("Bearer " + token));
+        assertSame(verified, tokenVerifier.verify(token));
+        assertSame(verified, tokenVerifier.verifyBearer("Bearer " + token));
+
+        verify(jwtUtil, times(1)).verify(token);
+    }
+
+    @Test
+    @DisplayName("Keep different tokens apart")
+    void testDistinctTokens() {
+        String token = new JwtUtil(SECRET).generateToken("testUser");
+        String other = new JwtUtil(SECRET).generateToken("otherUser");
+        when(jwtUtil.verify(token)).thenReturn(new VerifiedToken("jti-1", "testUser", Instant.now().plusSeconds(60)));
+        when(jwtUtil.verify(other)).thenReturn(new VerifiedToken("jti-2", "otherUser", Instant.now().plusSeconds(60)));
+
+        assertEquals("testUser", tokenVerifier.verifyBearer("Bearer " + token).getSubject());
+        assertEquals("otherUser", tokenVerifier.verify(other).getSubject());
+    }
+}
@@ -1,33 +1,51 @@
 package com.auth.auth_microservice.service.serviceImp;
 
+import com.auth.auth_microservice.config.MongoResilienceProperties;
 import com.auth.auth_microservice.exceptions.ClientNotFound;
 import com.auth.auth_microservice.exceptions.InvalidCredentials;
+import com.auth.auth_microservice.metrics.AuthMetrics;
 import com.auth.auth_microservice.model.AuthRequest;
+import com.auth.auth_microservice.model.LoginEvent;
+import com.auth.auth_microservice.model.TokenPair;
 import com.auth.auth_microservice.model.User;
-import com.auth.auth_microservice.repository.UserRepository;
+import com.auth.auth_microservice.model.UserCredentials;
+import com.auth.auth_microservice.model.UserView;
+import com.auth.auth_microservice.repository.MongoResilience;
+import com.auth.auth_microservice.repository.UserCredentialsCache;
+import com.auth.auth_microservice.repository.UserStore;
+import com.auth.auth_microservice.security.ClientAddress;
 import com.auth.auth_microservice.security.JwtUtil;
+import com.auth.auth_microservice.security.LoginAttemptGuard;
+import com.auth.auth_microservice.security.LoginAudit;
+import com.auth.auth_microservice.security.PasswordHasher;
+import com.auth.auth_microservice.security.RefreshTokenStore;
+import com.auth.auth_microservice.security.TokenIssuer;
+import com.auth.auth_microservice.security.TokenRevocationList;
+import com.auth.auth_microservice.security.TokenVerifier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import reactor.adapter.rxjava.RxJava3Adapter;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.time.LocalDate;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class AuthServiceImpTest {
 
     @Mock
-    private UserRepository userRepository;
+    private UserStore userStore;
 
     @Mock
     private PasswordEncoder passwordEncoder;
@@ -35,14 +53,34 @@ class AuthServiceImpTest {
     @Mock
     private JwtUtil jwtUtil;
 
-    @InjectMocks
+    @Mock
+    private RefreshTokenStore refreshTokenStore;
+
+    @Mock
+    private LoginAudit loginAudit;
+
     private AuthServiceImp authService;
 
     private User user1;
+    private UserCredentials credentials1;
     private final String token = "a6s5f6as5df6as3f2as6df5a6sd5f6as2dfa6sd5fa6s5f";
+    private final String refreshToken = "Zq3vJ9d0Xw1pK7mN2bT5yH8cR4sL6aE0fG3uI9oP1xV";
 
     @BeforeEach
     void setUp() {
+        PasswordHasher passwordHasher = new PasswordHasher(passwordEncoder, 2, 8, new SimpleMeterRegistry());
+        LoginAttemptGuard loginAttemptGuard = new LoginAttemptGuard(100, Duration.ofMinutes(1), 100,
+                Duration.ofMinutes(1), 5, Duration.ofSeconds(30), Duration.ofMinutes(15), 1000, 1000, 1000,
+                new SimpleMeterRegistry());
+        AuthMetrics authMetrics = new AuthMetrics(new SimpleMeterRegistry());
+        MongoResilience mongoResilience = new MongoResilience(new MongoResilienceProperties(), new SimpleMeterRegistry());
+        UserCredentialsCache userCredentialsCache = new UserCredentialsCache(userStore, authMetrics,
+                mongoResilience, 100,
+                Duration.ofMinutes(5), Duration.ofSeconds(10));
+        TokenIssuer tokenIssuer = new TokenIssuer(jwtUtil, mock(TokenVerifier.class), refreshTokenStore,
+                mock(TokenRevocationList.class), userCredentialsCache, authMetrics);
+        authService = new AuthServiceImp(userStore, userCredentialsCache, passwordHasher, tokenIssuer, loginAttemptGuard,
+                loginAudit, authMetrics, mongoResilience, 100);
         user1 = User.builder()
                 .id("123")
                 .username("testuser")
@@ -50,6 +88,7 @@ class AuthServiceImpTest {
                 .email("test@example.com")
                 .dateBorn(LocalDate.now())
                 .build();
+        credentials1 = new UserCredentials(user1.getUsername(), user1.getPassword(), "USER");
 
     }
 
@@ -57,51 +96,111 @@ class AuthServiceImpTest {
     @DisplayName("Authentication success")
     void authenticateSuccess() {
         AuthRequest request = new AuthRequest("testuser", "password");
-        when(userRepository.findByUsername(request.getUsername())).thenReturn(Mono.just(user1));
+        when(userStore.findCredentialsByUsername(request.getUsername())).thenReturn(Mono.just(credentials1));
         when(passwordEncoder.matches(request.getPassword(), user1.getPassword())).thenReturn(true);
-        when(jwtUtil.generateToken(user1.getUsername())).thenReturn(token);
+        when(jwtUtil.generateToken(user1.getUsername(), "USER")).thenReturn(token);
+        when(refreshTokenStore.issue(user1.getUsername())).thenReturn(Mono.just(refreshToken));
 
-        Mono<String> result = RxJava3Adapter.singleToMono(authService.authenticate(request));
+        Mono<TokenPair> result = authService.authenticate(request);
 
         StepVerifier.create(result)
-                .expectNext(token)
+                .assertNext(tokens -> {
+                    assertEquals(token, tokens.getToken());
+                    assertEquals(refreshToken, tokens.getRefreshToken());
+                })
                 .verifyComplete();
 
-        verify(userRepository, times(1)).findByUsername(request.getUsername());
+        verify(userStore, times(1)).findCredentialsByUsername(request.getUsername());
         verify(passwordEncoder, times(1)).matches(request.getPassword(), user1.getPassword());
-        verify(jwtUtil, times(1)).generateToken(user1.getUsername());
+        verify(jwtUtil, times(1)).generateToken(user1.getUsername(), "USER");
+        verify(loginAudit).record(user1.getUsername(), LoginEvent.Outcome.SUCCESS, ClientAddress.UNKNOWN);
+    }
+
+    @Test
+    @DisplayName("Rehash an outdated password after a successful login")
+    void authenticateRehashesOutdatedPassword() {
+        AuthRequest request = new AuthRequest("testuser", "password");
+        when(userStore.findCredentialsByUsername(request.getUsername())).thenReturn(Mono.just(credentials1));
+        when(passwordEncoder.matches(request.getPassword(), user1.getPassword())).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(user1.getPassword())).thenReturn(true);
+        when(passwordEncoder.encode(request.getPassword())).thenReturn("{argon2}newHash");
+        when(userStore.updatePassword(user1.getUsername(), user1.getPassword(), "{argon2}newHash"))
+                .thenReturn(Mono.just(true));
+        when(jwtUtil.generateToken(user1.getUsername(), "USER")).thenReturn(token);
+        when(refreshTokenStore.issue(user1.getUsername())).thenReturn(Mono.just(refreshToken));
+
+        StepVerifier.create(authService.authenticate(request))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(userStore, timeout(1000)).updatePassword(user1.getUsername(), user1.getPassword(), "{argon2}newHash");
     }
 
     @Test
     @DisplayName("Authenticate when user not found")
     void authenticateUserNotFound() {
         AuthRequest request = new AuthRequest("nonexistent", "password");
-        when(userRepository.findByUsername(request.getUsername())).thenReturn(Mono.empty());
+        when(userStore.findCredentialsByUsername(request.getUsername())).thenReturn(Mono.empty());
 
-        Mono<String> result = RxJava3Adapter.singleToMono(authService.authenticate(request));
+        Mono<TokenPair> result = authService.authenticate(request);
 
         StepVerifier.create(result)
                 .expectError(ClientNotFound.class)
                 .verify();
 
-        verify(userRepository, times(1)).findByUsername(request.getUsername());
+        verify(userStore, times(1)).findCredentialsByUsername(request.getUsername());
     }
 
     @Test
     @DisplayName("Authenticate when user have invalid credentials")
     void authenticateInvalidCredentialsTest() {
         AuthRequest request = new AuthRequest("testuser", "wrongpassword");
-        when(userRepository.findByUsername(request.getUsername())).thenReturn(Mono.just(user1));
+        when(userStore.findCredentialsByUsername(request.getUsername())).thenReturn(Mono.just(credentials1));
         when(passwordEncoder.matches(request.getPassword(), user1.getPassword())).thenReturn(false);
 
-        Mono<String> result = RxJava3Adapter.singleToMono(authService.authenticate(request));
+        Mono<TokenPair> result = authService.authenticate(request)
+                .contextWrite(context -> ClientAddress.with(context, "10.0.0.1"));
 
         StepVerifier.create(result)
                 .expectError(InvalidCredentials.class)
                 .verify();
 
-        verify(userRepository, times(1)).findByUsername(request.getUsername());
+        verify(userStore, times(1)).findCredentialsByUsername(request.getUsername());
         verify(passwordEncoder, times(1)).matches(request.getPassword(), user1.getPassword());
+        verify(loginAudit).record(request.getUsername(), LoginEvent.Outcome.INVALID_CREDENTIALS, "10.0.0.1");
+    }
+
+    @Test
+    @DisplayName("Refresh the tokens with the current roles without checking the password")
+    void refreshSuccessTest() {
+        when(refreshTokenStore.consume(refreshToken)).thenReturn(Mono.just(user1.getUsername()));
+        when(userStore.findCredentialsByUsername(user1.getUsername())).thenReturn(Mono.just(
+                new UserCredentials(user1.getUsername(), user1.getPassword(), "ADMIN USER")));
+        when(jwtUtil.generateToken(user1.getUsername(), "ADMIN USER")).thenReturn(token);
+        when(refreshTokenStore.issue(user1.getUsername())).thenReturn(Mono.just("rotated"));
+
+        Mono<TokenPair> result = authService.refresh(refreshToken);
+
+        StepVerifier.create(result)
+                .assertNext(tokens -> {
+                    assertEquals(token, tokens.getToken());
+                    assertEquals("rotated", tokens.getRefreshToken());
+                })
+                .verifyComplete();
+
+        verifyNoInteractions(passwordEncoder);
+    }
+
+    @Test
+    @DisplayName("Refresh with an unknown or already used refresh token")
+    void refreshInvalidTokenTest() {
+        when(refreshTokenStore.consume(refreshToken)).thenReturn(Mono.empty());
+
+        Mono<TokenPair> result = authService.refresh(refreshToken);
+
+        StepVerifier.create(result)
+                .expectError(InvalidCredentials.class)
+                .verify();
     }
 
     @Test
@@ -113,46 +212,91 @@ class AuthServiceImpTest {
                 .email("new@example.com")
                 .dateBorn(LocalDate.of(1998, 6, 25))
                 .build();
-        when(userRepository.findByUsername(newUser.getUsername())).thenReturn(Mono.empty());
+        when(userStore.findCredentialsByUsername(newUser.getUsername())).thenReturn(Mono.empty());
         when(passwordEncoder.encode(newUser.getPassword())).thenReturn("encodedPassword");
-        when(userRepository.save(any(User.class))).thenReturn(Mono.just(user1));
+        when(userStore.insert(any(User.class))).thenReturn(Mono.just(user1));
 
-        Mono<User> result = RxJava3Adapter.singleToMono(authService.register(newUser));
+        Mono<User> result = authService.register(newUser);
 
         StepVerifier.create(result)
                 .expectNext(user1)
                 .verifyComplete();
 
-        verify(userRepository, times(1)).findByUsername(newUser.getUsername());
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userStore, times(1)).findCredentialsByUsername(newUser.getUsername());
+        verify(userStore, times(1)).insert(any(User.class));
     }
-/*
+
     @Test
     @DisplayName("Register a user when already exists")
     void registerUserAlreadyExistsTest() {
-        User existingUser = User.builder().username("testuser").build();
-        when(userRepository.findByUsername(existingUser.getUsername())).thenReturn(Mono.just(user1));
+        User existingUser = User.builder().username("testuser").password("password").build();
+        when(userStore.findCredentialsByUsername(existingUser.getUsername())).thenReturn(Mono.just(credentials1));
 
-        Mono<User> result = RxJava3Adapter.singleToMono(authService.register(existingUser));
+        Mono<User> result = authService.register(existingUser);
 
         StepVerifier.create(result)
                 .expectError(InvalidCredentials.class)
                 .verify();
 
-        verify(userRepository, times(1)).findByUsername(existingUser.getUsername());
-    }*/
+        verify(userStore, times(1)).findCredentialsByUsername(existingUser.getUsername());
+        verify(passwordEncoder, never()).encode(any());
+        verify(userStore, never()).insert(any(User.class));
+    }
+
+    @Test
+    @DisplayName("Register a user when a concurrent insert wins the unique index")
+    void registerDuplicateKeyTest() {
+        User newUser = User.builder().username("newuser").password("password").build();
+        when(userStore.findCredentialsByUsername(newUser.getUsername())).thenReturn(Mono.empty());
+        when(passwordEncoder.encode(newUser.getPassword())).thenReturn("encodedPassword");
+        when(userStore.insert(any(User.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("E11000 duplicate key")));
+
+        Mono<User> result = authService.register(newUser);
+
+        StepVerifier.create(result)
+                .expectError(InvalidCredentials.class)
+                .verify();
+    }
 
     @Test
     @DisplayName("GetAll users")
     void getAllUsersSuccess() {
-        when(userRepository.findAll()).thenReturn(Flux.just(user1));
+        UserView view = new UserView(user1.getId(), user1.getUsername(), user1.getEmail(), user1.getDateBorn(), "USER");
+        when(userStore.findAfter("", 20)).thenReturn(Flux.just(view));
 
-        Flux<User> result = RxJava3Adapter.flowableToFlux(authService.getAll());
+        Flux<UserView> result = authService.getAll(null, 20);
 
         StepVerifier.create(result)
-                .expectNext(user1)
+                .expectNext(view)
                 .verifyComplete();
 
-        verify(userRepository, times(1)).findAll();
+        verify(userStore, times(1)).findAfter("", 20);
+    }
+
+    @Test
+    @DisplayName("GetAll users caps the page size")
+    void getAllUsersCapsPageSize() {
+        when(userStore.findAfter("123", 100)).thenReturn(Flux.empty());
+
+        Flux<UserView> result = authService.getAll("123", 5000);
+
+        StepVerifier.create(result)
+                .verifyComplete();
+
+        verify(userStore, times(1)).findAfter("123", 100);
+    }
+
+    @Test
+    @DisplayName("Stream all users after a cursor")
+    void streamAllUsersSuccess() {
+        UserView view = new UserView(user1.getId(), user1.getUsername(), user1.getEmail(), user1.getDateBorn(), "USER");
+        when(userStore.findAllAfter("100")).thenReturn(Flux.just(view));
+
+        Flux<UserView> result = authService.streamAll("100");
+
+        StepVerifier.create(result)
+                .expectNext(view)
+                .verifyComplete();
     }
 }
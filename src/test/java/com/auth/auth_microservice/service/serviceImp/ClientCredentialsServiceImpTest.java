@@ -0,0 +1,126 @@
+package com.auth.auth_microservice.service.serviceImp;
+
+import com.auth.auth_microservice.exceptions.InvalidRequest;
+import com.auth.auth_microservice.exceptions.ServiceUnavailable;
+import com.auth.auth_microservice.metrics.AuthMetrics;
+import com.auth.auth_microservice.model.ClientRegistration;
+import com.auth.auth_microservice.model.ClientRegistrationRequest;
+import com.auth.auth_microservice.model.ServiceClient;
+import com.auth.auth_microservice.security.ClientRegistry;
+import com.auth.auth_microservice.security.ClientSecretHasher;
+import com.auth.auth_microservice.security.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ClientCredentialsServiceImpTest {
+    private static final String SECRET = "mysecretkeymysecretkeymysecretkeymysecretkey";
+
+    @Mock
+    private ClientRegistry clientRegistry;
+
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET);
+    private final ClientSecretHasher secretHasher = new ClientSecretHasher("pepperpepperpepperpepperpepperpepper");
+    private ClientCredentialsServiceImp clientCredentialsService;
+
+    @BeforeEach
+    void setUp() {
+        clientCredentialsService = new ClientCredentialsServiceImp(clientRegistry, secretHasher, jwtUtil,
+                new AuthMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    @DisplayName("Issue a token carrying all scopes of the client, or the requested subset")
+    void testIssueToken() {
+        when(clientRegistry.authenticate("batch-job", "secret")).thenReturn(Mono.just(client()));
+
+        StepVerifier.create(clientCredentialsService.issueToken("batch-job", "secret", null))
+                .assertNext(token -> {
+                    assertEquals("Bearer", token.getTokenType());
+                    assertEquals("users:read users:write", token.getScope());
+                    assertEquals(900, token.getExpiresIn());
+                    assertEquals(List.of("users:read", "users:write"),
+                            jwtUtil.verify(token.getAccessToken()).getScopes());
+                })
+                .verifyComplete();
+        StepVerifier.create(clientCredentialsService.issueToken("batch-job", "secret", "users:read"))
+                .assertNext(token -> assertEquals(List.of("users:read"),
+                        jwtUtil.verify(token.getAccessToken()).getScopes()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Reject a scope the client was not granted")
+    void testRejectUngrantedScope() {
+        when(clientRegistry.authenticate("batch-job", "secret")).thenReturn(Mono.just(client()));
+
+        StepVerifier.create(clientCredentialsService.issueToken("batch-job", "secret", "users:read users:delete"))
+                .expectError(InvalidRequest.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Register a client storing only a hash of the secret it returns")
+    void testRegister() {
+        when(clientRegistry.register(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        ClientRegistration registration = clientCredentialsService.register(
+                new ClientRegistrationRequest("batch-job", List.of("users:read"))).block();
+
+        ArgumentCaptor<ServiceClient> stored = ArgumentCaptor.forClass(ServiceClient.class);
+        verify(clientRegistry).register(stored.capture());
+        assertEquals(registration.getClientId(), stored.getValue().getId());
+        assertTrue(stored.getValue().isEnabled());
+        assertNotEquals(registration.getClientSecret(), stored.getValue().getSecretHash());
+        assertTrue(secretHasher.matches(registration.getClientSecret(), stored.getValue().getSecretHash()));
+    }
+
+    @Test
+    @DisplayName("Reject scopes that cannot appear in a scope claim")
+    void testRegisterInvalidScope() {
+        StepVerifier.create(clientCredentialsService.register(
+                        new ClientRegistrationRequest("batch-job", List.of("users read"))))
+                .expectError(InvalidRequest.class)
+                .verify();
+        verify(clientRegistry, never()).register(any());
+    }
+
+    @Test
+    @DisplayName("Refuse to register clients without a pepper")
+    void testRegisterWithoutPepper() {
+        clientCredentialsService = new ClientCredentialsServiceImp(clientRegistry, new ClientSecretHasher(""),
+                jwtUtil, new AuthMetrics(new SimpleMeterRegistry()));
+
+        StepVerifier.create(clientCredentialsService.register(
+                        new ClientRegistrationRequest("batch-job", List.of("users:read"))))
+                .expectError(ServiceUnavailable.class)
+                .verify();
+        verify(clientRegistry, never()).register(any());
+    }
+
+    private static ServiceClient client() {
+        return ServiceClient.builder()
+                .id("batch-job")
+                .scopes(List.of("users:read", "users:write"))
+                .enabled(true)
+                .build();
+    }
+}
@@ -0,0 +1,69 @@
+package com.auth.auth_microservice.service.serviceImp;
+
+import com.auth.auth_microservice.exceptions.InvalidRequest;
+import com.auth.auth_microservice.metrics.AuthMetrics;
+import com.auth.auth_microservice.model.IntrospectionResult;
+import com.auth.auth_microservice.security.JwtKeyRing;
+import com.auth.auth_microservice.security.JwtUtil;
+import com.auth.auth_microservice.security.TokenPrecheck;
+import com.auth.auth_microservice.security.TokenRevocationList;
+import com.auth.auth_microservice.security.TokenVerifier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class TokenIntrospectionServiceImpTest {
+    private static final String SECRET = "mysecretkeymysecretkeymysecretkeymysecretkey";
+
+    private JwtUtil jwtUtil;
+    private TokenIntrospectionServiceImp tokenIntrospectionService;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(SECRET);
+        TokenVerifier tokenVerifier = new TokenVerifier(jwtUtil, new TokenPrecheck(JwtKeyRing.hmac(SECRET), 4096),
+                new AuthMetrics(new SimpleMeterRegistry()), mock(TokenRevocationList.class), 100);
+        tokenIntrospectionService = new TokenIntrospectionServiceImp(tokenVerifier, 100, 4);
+    }
+
+    @Test
+    @DisplayName("A batch spanning several chunks is answered in order, with invalid tokens inactive")
+    void testBatchKeepsOrder() {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tokens.add(i % 3 == 0 ? "not-a-token" : jwtUtil.generateToken("user" + i));
+        }
+
+        List<IntrospectionResult> results = tokenIntrospectionService.introspect(tokens).collectList().block();
+
+        assertEquals(tokens.size(), results.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            IntrospectionResult result = results.get(i);
+            if (i % 3 == 0) {
+                assertFalse(result.isActive());
+                assertNull(result.getSubject());
+            } else {
+                assertTrue(result.isActive());
+                assertEquals("user" + i, result.getSubject());
+                assertNotNull(result.getExpiresAt());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Reject batches above the maximum size")
+    void testRejectOversizedBatch() {
+        StepVerifier.create(tokenIntrospectionService.introspect(Collections.nCopies(101, "token")))
+                .expectError(InvalidRequest.class)
+                .verify();
+    }
+}
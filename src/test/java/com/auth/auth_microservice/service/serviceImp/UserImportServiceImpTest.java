@@ -0,0 +1,172 @@
+package com.auth.auth_microservice.service.serviceImp;
+
+import com.auth.auth_microservice.config.MongoResilienceProperties;
+import com.auth.auth_microservice.metrics.AuthMetrics;
+import com.auth.auth_microservice.model.ImportResult;
+import com.auth.auth_microservice.model.User;
+import com.auth.auth_microservice.repository.MongoResilience;
+import com.auth.auth_microservice.repository.UserCredentialsCache;
+import com.auth.auth_microservice.repository.UserStore;
+import com.auth.auth_microservice.security.Authorities;
+import com.auth.auth_microservice.security.PasswordHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import javax.validation.Validation;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceImpTest {
+
+    @Mock
+    private UserStore userStore;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private UserImportServiceImp userImportService;
+
+    @BeforeEach
+    void setUp() {
+        PasswordHasher passwordHasher = new PasswordHasher(passwordEncoder, 2, 8, new SimpleMeterRegistry());
+        MongoResilience mongoResilience = new MongoResilience(new MongoResilienceProperties(), new SimpleMeterRegistry());
+        UserCredentialsCache userCredentialsCache = new UserCredentialsCache(userStore,
+                new AuthMetrics(new SimpleMeterRegistry()), mongoResilience, 100, Duration.ofMinutes(5),
+                Duration.ofSeconds(10));
+        userImportService = new UserImportServiceImp(userStore, userCredentialsCache, passwordHasher,
+                Validation.buildDefaultValidatorFactory().getValidator(), mongoResilience, 2, 0);
+    }
+
+    @Test
+    @DisplayName("Import hashes passwords, writes in batches and reports every record")
+    @SuppressWarnings("unchecked")
+    void importUsersTest() {
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "{bcrypt}" + invocation.getArgument(0));
+        when(userStore.insertAllUnordered(anyList())).thenAnswer(invocation -> {
+            List<User> batch = invocation.getArgument(0);
+            return Flux.fromIterable(batch).map(user -> "taken".equals(user.getUsername())
+                    ? ImportResult.duplicate(user.getUsername())
+                    : ImportResult.created(user.getUsername()));
+        });
+
+        Flux<User> users = Flux.just(user("ana"), user("taken"), user(""), user("luis"));
+
+        StepVerifier.create(userImportService.importUsers(users, false, true).collectList())
+                .assertNext(results -> {
+                    assertEquals(4, results.size());
+                    assertEquals(ImportResult.Status.CREATED, status(results, "ana"));
+                    assertEquals(ImportResult.Status.DUPLICATE, status(results, "taken"));
+                    assertEquals(ImportResult.Status.INVALID, status(results, ""));
+                    assertEquals(ImportResult.Status.CREATED, status(results, "luis"));
+                })
+                .verifyComplete();
+
+        ArgumentCaptor<List<User>> batches = ArgumentCaptor.forClass(List.class);
+        verify(userStore, times(2)).insertAllUnordered(batches.capture());
+        assertEquals("{bcrypt}password", batches.getAllValues().get(0).get(0).getPassword());
+    }
+
+    @Test
+    @DisplayName("Import prehashed passwords without hashing them again")
+    void importPrehashedUsersTest() {
+        User hashed = user("ana");
+        hashed.setPassword("{argon2}$argon2id$v=19$m=19456,t=2,p=1$c2FsdA$aGFzaA");
+        when(userStore.insertAllUnordered(anyList())).thenReturn(Flux.just(ImportResult.created("ana")));
+
+        StepVerifier.create(userImportService.importUsers(Flux.just(hashed, user("plain")), true, true))
+                .assertNext(result -> assertEquals(ImportResult.Status.INVALID, result.getStatus()))
+                .assertNext(result -> assertEquals(ImportResult.Status.CREATED, result.getStatus()))
+                .verifyComplete();
+
+        verifyNoInteractions(passwordEncoder);
+    }
+
+    @Test
+    @DisplayName("Import the roles of each record when the caller may assign them")
+    @SuppressWarnings("unchecked")
+    void importRolesAsAdminTest() {
+        User admin = user("ana");
+        admin.setRoles("user admin");
+        when(passwordEncoder.encode(anyString())).thenReturn("{bcrypt}hash");
+        when(userStore.insertAllUnordered(anyList())).thenReturn(Flux.just(ImportResult.created("ana")));
+
+        StepVerifier.create(userImportService.importUsers(Flux.just(admin), false, true))
+                .assertNext(result -> assertEquals(ImportResult.Status.CREATED, result.getStatus()))
+                .verifyComplete();
+
+        ArgumentCaptor<List<User>> batch = ArgumentCaptor.forClass(List.class);
+        verify(userStore).insertAllUnordered(batch.capture());
+        assertEquals("ADMIN USER", batch.getValue().get(0).getRoles());
+    }
+
+    @Test
+    @DisplayName("Reject records carrying roles when the caller may not assign them")
+    @SuppressWarnings("unchecked")
+    void importRolesWithoutAdminTest() {
+        User admin = user("ana");
+        admin.setRoles("ADMIN");
+        User plain = user("luis");
+        plain.setRoles("USER");
+        when(passwordEncoder.encode(anyString())).thenReturn("{bcrypt}hash");
+        when(userStore.insertAllUnordered(anyList())).thenAnswer(invocation -> {
+            List<User> batch = invocation.getArgument(0);
+            return Flux.fromIterable(batch).map(user -> ImportResult.created(user.getUsername()));
+        });
+
+        StepVerifier.create(userImportService.importUsers(Flux.just(admin, plain, user("eva")), false, false)
+                        .collectList())
+                .assertNext(results -> {
+                    assertEquals(ImportResult.Status.INVALID, status(results, "ana"));
+                    assertEquals(ImportResult.Status.CREATED, status(results, "luis"));
+                    assertEquals(ImportResult.Status.CREATED, status(results, "eva"));
+                })
+                .verifyComplete();
+
+        ArgumentCaptor<List<User>> batches = ArgumentCaptor.forClass(List.class);
+        verify(userStore, times(2)).insertAllUnordered(batches.capture());
+        batches.getAllValues().stream()
+                .flatMap(List::stream)
+                .forEach(user -> assertEquals(Authorities.DEFAULT_ROLES, user.getRoles()));
+        verify(passwordEncoder, times(2)).encode(anyString());
+    }
+
+    @Test
+    @DisplayName("Hash on a quarter of the pool by default")
+    void defaultConcurrencyTest() {
+        assertEquals(1, UserImportServiceImp.defaultConcurrency(1));
+        assertEquals(1, UserImportServiceImp.defaultConcurrency(4));
+        assertEquals(4, UserImportServiceImp.defaultConcurrency(16));
+    }
+
+    private static ImportResult.Status status(List<ImportResult> results, String username) {
+        return results.stream()
+                .filter(result -> username.equals(result.getUsername()))
+                .findFirst()
+                .map(ImportResult::getStatus)
+                .orElse(null);
+    }
+
+    private static User user(String username) {
+        return User.builder()
+                .username(username)
+                .password("password")
+                .email(username + "@example.com")
+                .dateBorn(LocalDate.of(1998, 6, 25))
+                .build();
+    }
+}